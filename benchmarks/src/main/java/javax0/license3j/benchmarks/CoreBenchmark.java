@@ -0,0 +1,73 @@
+package javax0.license3j.benchmarks;
+
+import javax0.license3j.License;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the in-memory conversions of a license: {@link License#serialized()},
+ * {@link License.Create#from(byte[])} and {@link License.Create#from(String)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CoreBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int featureCount;
+
+    @Param({"0", "65536"})
+    public int binarySize;
+
+    private License license;
+    private byte[] binary;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        license = Licenses.create(featureCount, binarySize);
+        binary = license.serialized();
+        text = license.toString();
+    }
+
+    @Benchmark
+    public byte[] serialized() {
+        Licenses.dropCaches(license);
+        return license.serialized();
+    }
+
+    @Benchmark
+    public byte[] serializedCached() {
+        return license.serialized();
+    }
+
+    @Benchmark
+    public License fromBinary() {
+        return License.Create.from(binary);
+    }
+
+    @Benchmark
+    public License fromString() {
+        return License.Create.from(text);
+    }
+
+    @Benchmark
+    public String toText() {
+        return license.toString();
+    }
+}
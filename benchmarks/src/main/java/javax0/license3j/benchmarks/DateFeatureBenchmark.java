@@ -0,0 +1,86 @@
+package javax0.license3j.benchmarks;
+
+import javax0.license3j.Feature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the conversion of {@code DATE} features from and to string. The {@code legacy} benchmarks repeat
+ * what the library did before using {@code java.time}: creating a new {@link SimpleDateFormat} for each conversion
+ * and trying the formats one after the other. They are the baseline to compare the {@link Feature} methods to.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DateFeatureBenchmark {
+    private static final String[] DATE_FORMAT =
+        {"yyyy-MM-dd HH:mm:ss.SSS",
+            "yyyy-MM-dd HH:mm:ss",
+            "yyyy-MM-dd HH:mm",
+            "yyyy-MM-dd HH",
+            "yyyy-MM-dd"
+        };
+
+    @Param({"2018-12-17 11:55:19.295", "2018-12-17 11:55", "2018-12-17"})
+    public String date;
+
+    private String text;
+    private Feature feature;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        text = "expiryDate:DATE=" + date;
+        feature = Feature.Create.from(text);
+    }
+
+    @Benchmark
+    public Feature parse() {
+        return Feature.Create.from(text);
+    }
+
+    @Benchmark
+    public String format() {
+        return feature.toString();
+    }
+
+    @Benchmark
+    public Date legacyParse() {
+        for (var format : DATE_FORMAT) {
+            try {
+                return utc(format).parse(date);
+            } catch (ParseException ignored) {
+            }
+        }
+        throw new IllegalArgumentException("Can not parse " + date);
+    }
+
+    @Benchmark
+    public String legacyFormat() {
+        return utc(DATE_FORMAT[0]).format(feature.getDate());
+    }
+
+    private static SimpleDateFormat utc(String format) {
+        final var simpleDateFormat = new SimpleDateFormat(format);
+        simpleDateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return simpleDateFormat;
+    }
+}
@@ -0,0 +1,60 @@
+package javax0.license3j.benchmarks;
+
+import javax0.license3j.HardwareBinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the machine id calculation from the network interfaces when the interfaces are filtered by allowed
+ * and denied regular expressions. The filtering is configured through {@link HardwareBinder#allowed(String)} and
+ * {@link HardwareBinder#denied(String)}, and the network interfaces of the machine running the benchmark are used.
+ * <p>
+ * None of the denied patterns and only the last allowed pattern match an interface, therefore every pattern is
+ * checked against every interface. Comparing the results for different pattern counts shows the cost of the
+ * filtering next to the cost of enumerating the interfaces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class InterfaceSelectorBenchmark {
+
+    @Param({"0", "16", "256"})
+    public int patternCount;
+
+    private HardwareBinder binder;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        binder = new HardwareBinder();
+        binder.ignore.hostName();
+        binder.ignore.architecture();
+        for (int i = 0; i < patternCount; i++) {
+            binder.denied("docker" + i + "-[0-9a-f]+");
+            binder.allowed("veth" + i + "-[0-9a-f]+");
+        }
+        if (patternCount > 0) {
+            binder.allowed(".*");
+        }
+    }
+
+    @Benchmark
+    public UUID machineId() throws Exception {
+        return binder.getMachineId();
+    }
+}
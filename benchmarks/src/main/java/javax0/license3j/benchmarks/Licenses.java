@@ -0,0 +1,65 @@
+package javax0.license3j.benchmarks;
+
+import javax0.license3j.Feature;
+import javax0.license3j.License;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Creates the sample licenses used by the benchmarks.
+ */
+final class Licenses {
+    private Licenses() {
+    }
+
+    /**
+     * Create a license with the given number of features. The features are of mixed type, one of them is a
+     * {@code BINARY} feature of the given size.
+     *
+     * @param featureCount the number of features, including the expiry date and the license id
+     * @param binarySize   the size of the binary feature, zero means no binary feature
+     * @return the new license, not signed
+     */
+    static License create(int featureCount, int binarySize) {
+        final var license = new License();
+        license.setExpiry(new Date(1_900_000_000_000L));
+        license.setLicenseId(new UUID(0x1234_5678L, 0x9ABC_DEF0L));
+        var n = 2;
+        if (binarySize > 0) {
+            final var blob = new byte[binarySize];
+            for (int i = 0; i < blob.length; i++) {
+                blob[i] = (byte) i;
+            }
+            license.add(Feature.Create.binaryFeature("blob", blob));
+            n++;
+        }
+        for (int i = 0; n < featureCount; i++, n++) {
+            switch (i % 4) {
+                case 0:
+                    license.add(Feature.Create.stringFeature("string" + i, "value of the feature number " + i));
+                    break;
+                case 1:
+                    license.add(Feature.Create.intFeature("int" + i, i));
+                    break;
+                case 2:
+                    license.add(Feature.Create.longFeature("long" + i, (long) i << 32));
+                    break;
+                default:
+                    license.add(Feature.Create.dateFeature("date" + i, new Date(1_500_000_000_000L + i)));
+                    break;
+            }
+        }
+        return license;
+    }
+
+    /**
+     * Make the license forget its cached binary representation, so that the next operation has to calculate it
+     * again. Adding a feature that is already in the license does not change the content of the license.
+     *
+     * @param license the license to reset
+     */
+    static void dropCaches(License license) {
+        license.add(license.get("licenseId"));
+    }
+}
@@ -0,0 +1,77 @@
+package javax0.license3j.benchmarks;
+
+import javax0.license3j.License;
+import javax0.license3j.io.IOFormat;
+import javax0.license3j.io.LicenseReader;
+import javax0.license3j.io.LicenseWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of converting a license to and from the different formats and of calculating the fingerprint.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int featureCount;
+
+    @Param({"0", "65536"})
+    public int binarySize;
+
+    @Param({"BINARY", "BASE64", "STRING"})
+    public IOFormat format;
+
+    private License license;
+    private byte[] formatted;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        license = Licenses.create(featureCount, binarySize);
+        final var os = new ByteArrayOutputStream();
+        new LicenseWriter(os).write(license, format);
+        formatted = os.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        Licenses.dropCaches(license);
+        final var os = new ByteArrayOutputStream(formatted.length);
+        new LicenseWriter(os).write(license, format);
+        return os.toByteArray();
+    }
+
+    @Benchmark
+    public License read() throws IOException {
+        try (final var reader = new LicenseReader(new ByteArrayInputStream(formatted))) {
+            return reader.read(format);
+        }
+    }
+
+    @Benchmark
+    public UUID fingerprint() {
+        Licenses.dropCaches(license);
+        return license.fingerprint();
+    }
+}
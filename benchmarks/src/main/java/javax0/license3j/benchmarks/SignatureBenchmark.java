@@ -0,0 +1,83 @@
+package javax0.license3j.benchmarks;
+
+import javax0.license3j.License;
+import javax0.license3j.LicenseVerifier;
+import javax0.license3j.crypto.LicenseKeyPair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.KeyPair;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of signing a license and checking the signature of a license for different key sizes and license
+ * sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SignatureBenchmark {
+
+    @Param({"1024", "2048", "4096"})
+    public int keySize;
+
+    @Param({"5", "50"})
+    public int featureCount;
+
+    @Param({"0", "65536"})
+    public int binarySize;
+
+    private KeyPair keys;
+    private byte[] serializedPublicKey;
+    private License unsigned;
+    private License signed;
+    private LicenseVerifier verifier;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final var pair = LicenseKeyPair.Create.from("RSA", keySize);
+        keys = pair.getPair();
+        serializedPublicKey = pair.getPublic();
+        unsigned = Licenses.create(featureCount, binarySize);
+        signed = Licenses.create(featureCount, binarySize);
+        signed.sign(keys.getPrivate(), "SHA-512");
+        verifier = new LicenseVerifier(keys.getPublic());
+    }
+
+    @Benchmark
+    public License sign() throws Exception {
+        unsigned.sign(keys.getPrivate(), "SHA-512");
+        return unsigned;
+    }
+
+    @Benchmark
+    public boolean isOK() {
+        Licenses.dropCaches(signed);
+        return signed.isOK(keys.getPublic());
+    }
+
+    @Benchmark
+    public boolean isOKSerializedKey() {
+        Licenses.dropCaches(signed);
+        return signed.isOK(serializedPublicKey);
+    }
+
+    @Benchmark
+    public boolean verifier() {
+        Licenses.dropCaches(signed);
+        return verifier.verify(signed);
+    }
+}
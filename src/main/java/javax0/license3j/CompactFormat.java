@@ -0,0 +1,125 @@
+package javax0.license3j;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Constants and helper methods of the compact binary format of the licenses. See {@link License#serializedCompact()}.
+ * <p>
+ * The compact format is
+ * <pre>
+ *     [4-byte magic][feature]...
+ * </pre>
+ * where each feature is
+ * <pre>
+ *     [1-byte tag][name][varint value length][value]
+ * </pre>
+ * The low seven bits of the tag are the type of the feature, the same value as in the original format. When the
+ * highest bit of the tag is set then the name is a single byte, the index of the name in the {@link #DICTIONARY}.
+ * Otherwise the name is the varint length of the UTF-8 encoded name followed by the bytes of the name. The value
+ * length is only present for the types that do not have a fixed size value.
+ * <p>
+ * The varints are unsigned, seven bits in each byte, least significant group first. The highest bit of a byte is
+ * set when more bytes follow.
+ */
+final class CompactFormat {
+    static final int MAGIC = 0x21CE4E5F;
+    static final int DICTIONARY_FLAG = 0x80;
+    static final int TYPE_MASK = 0x7F;
+
+    /**
+     * The names that are stored as a single byte. The index of a name is part of the format, therefore new names may
+     * only be appended to the end of the array.
+     */
+    private static final String[] DICTIONARY = {
+        License.EXPIRATION_DATE,
+        License.LICENSE_ID,
+        License.SIGNATURE_KEY,
+        License.DIGEST_KEY,
+        "revocationUrl",
+        "owner",
+        "email",
+        "company",
+        "product",
+        "version",
+        "edition",
+        "issueDate",
+    };
+    private static final Map<String, Integer> INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < DICTIONARY.length; i++) {
+            INDEX.put(DICTIONARY[i], i);
+        }
+    }
+
+    private CompactFormat() {
+    }
+
+    /**
+     * @param name the name of a feature
+     * @return the index of the name in the dictionary or -1 if the name is not in the dictionary
+     */
+    static int dictionaryIndex(String name) {
+        final var index = INDEX.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param index the index of the name in the dictionary
+     * @return the name
+     * @throws IllegalArgumentException if there is no name with the index
+     */
+    static String dictionaryName(int index) {
+        if (index >= DICTIONARY.length) {
+            throw new IllegalArgumentException("Unknown dictionary name index " + index);
+        }
+        return DICTIONARY[index];
+    }
+
+    /**
+     * @param value a non-negative integer
+     * @return the number of bytes the value occupies as varint
+     */
+    static int varintSize(int value) {
+        var size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Read a varint from the buffer.
+     *
+     * @param buffer the buffer to read the varint from
+     * @return the non-negative value
+     * @throws IllegalArgumentException if the varint is longer than five bytes or the value does not fit into a
+     *                                  non-negative {@code int}
+     * @throws BufferUnderflowException if the buffer ends before the end of the varint
+     */
+    static int getVarint(ByteBuffer buffer) {
+        var value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final var b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0 || (shift == 28 && (b & 0x70) != 0)) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid length in compact license");
+    }
+}
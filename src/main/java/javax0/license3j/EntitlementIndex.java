@@ -0,0 +1,423 @@
+package javax0.license3j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * An index over the features of many licenses to find the licenses that match a {@link Query}, without calling
+ * {@link License#get(String)} on every license.
+ * <p>
+ * The index is created from a collection of licenses calling {@link Create#from(Collection)}, for example from the
+ * licenses of a {@link LicenseRegistry}. Each license gets a position, the index of the license in the iteration
+ * order of the collection. The queries return the positions of the matching licenses as a {@link BitSet}, and
+ * {@link #find(Query)} converts them to the list of licenses.
+ * <p>
+ * The {@code STRING} and {@code UUID} features are stored in hash maps, from the feature value to the positions of
+ * the licenses having the value. The {@code BYTE}, {@code SHORT}, {@code INT}, {@code LONG} and {@code DATE}
+ * features are stored as {@code long} values sorted in an array together with the positions of the licenses, dates
+ * as milliseconds since the epoch. An equality query on a string is a single hash lookup, a range query on a number
+ * is two binary searches. The features of other types are not indexed, only their presence can be queried using
+ * {@link #has(String)}.
+ * <p>
+ * The index is immutable and thread safe. It does not follow the later changes of the licenses or the collection it
+ * was created from. Create a new index when the licenses change.
+ */
+public final class EntitlementIndex {
+    private final License[] licenses;
+    private final Map<String, BitSet> present;
+    private final Map<String, Map<Object, BitSet>> hashed;
+    private final Map<String, Numeric> numeric;
+
+    private EntitlementIndex(License[] licenses, Map<String, BitSet> present,
+                             Map<String, Map<Object, BitSet>> hashed, Map<String, Numeric> numeric) {
+        this.licenses = licenses;
+        this.present = present;
+        this.hashed = hashed;
+        this.numeric = numeric;
+    }
+
+    /**
+     * A condition on the features of the licenses. Queries are created by the static methods of
+     * {@link EntitlementIndex}, like {@link #eq(String, String)} or {@link #gt(String, long)}, and combined using
+     * {@link #and(Query)}, {@link #or(Query)} and {@link #not()}.
+     */
+    @FunctionalInterface
+    public interface Query {
+        /**
+         * @param index the index to evaluate the query on
+         * @return a new bit set with the positions of the matching licenses. The caller may modify the bit set.
+         */
+        BitSet select(EntitlementIndex index);
+
+        /**
+         * @param other the other condition
+         * @return a query that matches the licenses matching both this and the other query
+         */
+        default Query and(Query other) {
+            return index -> {
+                final var result = select(index);
+                if (!result.isEmpty()) {
+                    result.and(other.select(index));
+                }
+                return result;
+            };
+        }
+
+        /**
+         * @param other the other condition
+         * @return a query that matches the licenses matching this or the other query
+         */
+        default Query or(Query other) {
+            return index -> {
+                final var result = select(index);
+                result.or(other.select(index));
+                return result;
+            };
+        }
+
+        /**
+         * @return a query that matches the licenses not matching this query
+         */
+        default Query not() {
+            return index -> {
+                final var result = select(index);
+                result.flip(0, index.size());
+                return result;
+            };
+        }
+    }
+
+    /**
+     * @param name the name of the feature
+     * @return a query that matches the licenses that have the feature, of any type
+     */
+    public static Query has(String name) {
+        return index -> copy(index.present.get(name));
+    }
+
+    /**
+     * @param name  the name of a {@code STRING} feature
+     * @param value the value of the feature
+     * @return a query that matches the licenses that have the feature with the value
+     */
+    public static Query eq(String name, String value) {
+        return index -> index.hashed(name, value);
+    }
+
+    /**
+     * @param name  the name of a {@code UUID} feature
+     * @param value the value of the feature
+     * @return a query that matches the licenses that have the feature with the value
+     */
+    public static Query eq(String name, UUID value) {
+        return index -> index.hashed(name, value);
+    }
+
+    /**
+     * @param name  the name of a {@code BYTE}, {@code SHORT}, {@code INT} or {@code LONG} feature
+     * @param value the value of the feature
+     * @return a query that matches the licenses that have the feature with the value
+     */
+    public static Query eq(String name, long value) {
+        return between(name, value, value);
+    }
+
+    /**
+     * @param name  the name of a {@code DATE} feature
+     * @param value the value of the feature
+     * @return a query that matches the licenses that have the feature with the value
+     */
+    public static Query eq(String name, Date value) {
+        return eq(name, value.getTime());
+    }
+
+    /**
+     * @param name  the name of a numeric feature, see {@link #eq(String, long)}
+     * @param value the limit
+     * @return a query that matches the licenses that have the feature with a value greater than the limit
+     */
+    public static Query gt(String name, long value) {
+        return value == Long.MAX_VALUE ? index -> new BitSet() : between(name, value + 1, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param name  the name of a {@code DATE} feature
+     * @param value the limit
+     * @return a query that matches the licenses that have the feature with a date after the limit
+     */
+    public static Query gt(String name, Date value) {
+        return gt(name, value.getTime());
+    }
+
+    /**
+     * @param name  the name of a numeric feature, see {@link #eq(String, long)}
+     * @param value the limit
+     * @return a query that matches the licenses that have the feature with a value greater than or equal to the
+     * limit
+     */
+    public static Query ge(String name, long value) {
+        return between(name, value, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param name  the name of a {@code DATE} feature
+     * @param value the limit
+     * @return a query that matches the licenses that have the feature with a date not before the limit
+     */
+    public static Query ge(String name, Date value) {
+        return ge(name, value.getTime());
+    }
+
+    /**
+     * @param name  the name of a numeric feature, see {@link #eq(String, long)}
+     * @param value the limit
+     * @return a query that matches the licenses that have the feature with a value less than the limit
+     */
+    public static Query lt(String name, long value) {
+        return value == Long.MIN_VALUE ? index -> new BitSet() : between(name, Long.MIN_VALUE, value - 1);
+    }
+
+    /**
+     * @param name  the name of a {@code DATE} feature
+     * @param value the limit
+     * @return a query that matches the licenses that have the feature with a date before the limit
+     */
+    public static Query lt(String name, Date value) {
+        return lt(name, value.getTime());
+    }
+
+    /**
+     * @param name  the name of a numeric feature, see {@link #eq(String, long)}
+     * @param value the limit
+     * @return a query that matches the licenses that have the feature with a value less than or equal to the limit
+     */
+    public static Query le(String name, long value) {
+        return between(name, Long.MIN_VALUE, value);
+    }
+
+    /**
+     * @param name  the name of a {@code DATE} feature
+     * @param value the limit
+     * @return a query that matches the licenses that have the feature with a date not after the limit
+     */
+    public static Query le(String name, Date value) {
+        return le(name, value.getTime());
+    }
+
+    /**
+     * @param name the name of a numeric feature, see {@link #eq(String, long)}
+     * @param from the lower limit, inclusive
+     * @param to   the upper limit, inclusive
+     * @return a query that matches the licenses that have the feature with a value between the limits
+     */
+    public static Query between(String name, long from, long to) {
+        return index -> index.range(name, from, to);
+    }
+
+    /**
+     * @param name the name of a {@code DATE} feature
+     * @param from the lower limit, inclusive
+     * @param to   the upper limit, inclusive
+     * @return a query that matches the licenses that have the feature with a date between the limits
+     */
+    public static Query between(String name, Date from, Date to) {
+        return between(name, from.getTime(), to.getTime());
+    }
+
+    /**
+     * @return the number of licenses in the index
+     */
+    public int size() {
+        return licenses.length;
+    }
+
+    /**
+     * @param position the position of the license
+     * @return the license at the position
+     * @throws ArrayIndexOutOfBoundsException if the position is negative or not less than {@link #size()}
+     */
+    public License license(int position) {
+        return licenses[position];
+    }
+
+    /**
+     * @param query the condition
+     * @return the positions of the matching licenses
+     */
+    public BitSet select(Query query) {
+        return query.select(this);
+    }
+
+    /**
+     * @param query the condition
+     * @return the number of the matching licenses
+     */
+    public int count(Query query) {
+        return query.select(this).cardinality();
+    }
+
+    /**
+     * @param query the condition
+     * @return the matching licenses in the order of their positions
+     */
+    public List<License> find(Query query) {
+        final var positions = query.select(this);
+        final var result = new ArrayList<License>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            result.add(licenses[i]);
+        }
+        return result;
+    }
+
+    private BitSet hashed(String name, Object value) {
+        final var values = hashed.get(name);
+        return copy(values == null ? null : values.get(value));
+    }
+
+    private BitSet range(String name, long from, long to) {
+        final var result = new BitSet(licenses.length);
+        final var index = numeric.get(name);
+        if (index == null || from > to) {
+            return result;
+        }
+        final var end = index.firstAbove(to);
+        for (int i = index.firstNotBelow(from); i < end; i++) {
+            result.set(index.positions[i]);
+        }
+        return result;
+    }
+
+    private static BitSet copy(BitSet bits) {
+        return bits == null ? new BitSet() : (BitSet) bits.clone();
+    }
+
+    /**
+     * The sorted values of a numeric feature and the positions of the licenses having the values.
+     */
+    private static final class Numeric {
+        private long[] values = new long[16];
+        private int[] positions = new int[16];
+        private int size;
+
+        private void add(long value, int position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+                positions = Arrays.copyOf(positions, 2 * size);
+            }
+            values[size] = value;
+            positions[size++] = position;
+        }
+
+        /**
+         * Sort the values together with the positions and trim the arrays. The order of the positions having the same
+         * value does not matter, the query results are collected into bit sets.
+         */
+        private void sort() {
+            final var unsortedValues = values;
+            final var unsortedPositions = positions;
+            final var order = IntStream.range(0, size).boxed()
+                .sorted(Comparator.comparingLong(i -> unsortedValues[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+            values = new long[size];
+            positions = new int[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = unsortedValues[order[i]];
+                positions[i] = unsortedPositions[order[i]];
+            }
+        }
+
+        private int firstNotBelow(long value) {
+            var low = 0;
+            var high = size;
+            while (low < high) {
+                final var mid = (low + high) >>> 1;
+                if (values[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstAbove(long value) {
+            return value == Long.MAX_VALUE ? size : firstNotBelow(value + 1);
+        }
+    }
+
+    /**
+     * Factory to create the index.
+     */
+    public static class Create {
+        private Create() {
+        }
+
+        /**
+         * Create the index of the licenses.
+         *
+         * @param licenses the licenses to index. The position of a license in the index is its position in the
+         *                 iteration order of the collection.
+         * @return the new index
+         */
+        public static EntitlementIndex from(Collection<? extends License> licenses) {
+            final var array = licenses.toArray(new License[0]);
+            final var present = new HashMap<String, BitSet>();
+            final var hashed = new HashMap<String, Map<Object, BitSet>>();
+            final var numeric = new HashMap<String, Numeric>();
+            for (int position = 0; position < array.length; position++) {
+                for (final var feature : array[position].features.sorted(Set.of())) {
+                    final var name = feature.name();
+                    present.computeIfAbsent(name, k -> new BitSet()).set(position);
+                    final Object key;
+                    if (feature.isString()) {
+                        key = feature.getString();
+                    } else if (feature.isUUID()) {
+                        key = feature.getUUID();
+                    } else {
+                        key = null;
+                        final var value = numericValue(feature);
+                        if (value != null) {
+                            numeric.computeIfAbsent(name, k -> new Numeric()).add(value, position);
+                        }
+                    }
+                    if (key != null) {
+                        hashed.computeIfAbsent(name, k -> new HashMap<>())
+                            .computeIfAbsent(key, k -> new BitSet()).set(position);
+                    }
+                }
+            }
+            numeric.values().forEach(Numeric::sort);
+            return new EntitlementIndex(array, present, hashed, numeric);
+        }
+
+        private static Long numericValue(Feature feature) {
+            if (feature.isByte()) {
+                return (long) feature.getByte();
+            }
+            if (feature.isShort()) {
+                return (long) feature.getShort();
+            }
+            if (feature.isInt()) {
+                return (long) feature.getInt();
+            }
+            if (feature.isLong()) {
+                return feature.getLong();
+            }
+            if (feature.isDate()) {
+                return feature.getDateMillis();
+            }
+            return null;
+        }
+    }
+}
@@ -4,10 +4,19 @@ import javax0.license3j.parsers.NumericParser;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.text.ParseException;
+import java.security.MessageDigest;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Date;
@@ -46,13 +55,32 @@ public class Feature {
                     "yyyy-MM-dd HH",
                     "yyyy-MM-dd"
             };
+    /**
+     * The formatter of the dates, equivalent to the first element of {@link #DATE_FORMAT}. The year is printed
+     * without a sign, the same way as {@link SimpleDateFormat} does.
+     */
+    private static final DateTimeFormatter DATE_FORMATTER = new DateTimeFormatterBuilder()
+        .appendValue(ChronoField.YEAR_OF_ERA, 4, 19, SignStyle.NORMAL)
+        .appendPattern("-MM-dd HH:mm:ss.SSS")
+        .toFormatter()
+        .withZone(ZoneOffset.UTC);
+    /**
+     * The start of the Gregorian calendar. {@link SimpleDateFormat} uses the Julian calendar for earlier dates,
+     * while {@code java.time} uses the proleptic Gregorian calendar. Dates before this point are formatted and parsed
+     * using {@link SimpleDateFormat} so that the string representation of a date does not change.
+     */
+    private static final long GREGORIAN_CUTOVER = -12219292800000L;
+    private static final int FIRST_GREGORIAN_YEAR = 1583;
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
     private static final int VARIABLE_LENGTH = -1;
     private final String name;
+    private final byte[] nameBuffer;
     private final Type type;
     private final byte[] value;
 
     private Feature(String name, Type type, byte[] value) {
         this.name = name;
+        this.nameBuffer = name.getBytes(StandardCharsets.UTF_8);
         this.type = type;
         this.value = value;
     }
@@ -64,19 +92,105 @@ public class Feature {
     }
 
     private static String dateFormat(Object date) {
-        return getUTCDateFormat(DATE_FORMAT[0]).format(date);
+        final var millis = ((Date) date).getTime();
+        if (millis < GREGORIAN_CUTOVER) {
+            return getUTCDateFormat(DATE_FORMAT[0]).format(date);
+        }
+        return DATE_FORMATTER.format(Instant.ofEpochMilli(millis));
     }
 
+    /**
+     * Parse a date. The strings of the form {@code yyyy-MM-dd[ HH[:mm[:ss.SSS]]]} with valid field values are parsed
+     * directly, selecting the format based on the length of the string. Anything else, for example dates before the
+     * Gregorian calendar or values that only the lenient {@link SimpleDateFormat} accepts, are parsed trying the
+     * formats listed in {@link #DATE_FORMAT} one after the other.
+     *
+     * @param date the string to parse
+     * @return the parsed date
+     */
     private static Date dateParse(String date) {
+        final var millis = fastDateParse(date);
+        if (millis != null) {
+            return new Date(millis);
+        }
         for (var format : DATE_FORMAT) {
-            try {
-                return getUTCDateFormat(format).parse(date);
-            } catch (ParseException ignored) {
+            final var parsed = getUTCDateFormat(format).parse(date, new ParsePosition(0));
+            if (parsed != null) {
+                return parsed;
             }
         }
         throw new IllegalArgumentException("Can not parse " + date);
     }
 
+    /**
+     * Parse the date if it is in one of the formats listed in {@link #DATE_FORMAT} without any leniency.
+     *
+     * @param date the string to parse
+     * @return the milliseconds since the epoch or {@code null} if the string has to be parsed by the legacy parser
+     */
+    private static Long fastDateParse(String date) {
+        final var length = date.length();
+        if (length != 10 && length != 13 && length != 16 && length != 19 && length != 23) {
+            return null;
+        }
+        if (date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return null;
+        }
+        final var year = digits(date, 0, 4);
+        final var month = digits(date, 5, 2);
+        final var day = digits(date, 8, 2);
+        if (year < FIRST_GREGORIAN_YEAR || month < 1 || month > 12 || day < 1 ||
+            day > LocalDate.of(year, month, 1).lengthOfMonth()) {
+            return null;
+        }
+        var hour = 0;
+        var minute = 0;
+        var second = 0;
+        var milli = 0;
+        if (length >= 13) {
+            if (date.charAt(10) != ' ' || (hour = digits(date, 11, 2)) > 23) {
+                return null;
+            }
+        }
+        if (length >= 16) {
+            if (date.charAt(13) != ':' || (minute = digits(date, 14, 2)) > 59) {
+                return null;
+            }
+        }
+        if (length >= 19) {
+            if (date.charAt(16) != ':' || (second = digits(date, 17, 2)) > 59) {
+                return null;
+            }
+        }
+        if (length == 23) {
+            if (date.charAt(19) != '.' || (milli = digits(date, 20, 3)) < 0) {
+                return null;
+            }
+        }
+        if (hour < 0 || minute < 0 || second < 0) {
+            return null;
+        }
+        final var epochDay = LocalDate.of(year, month, day).toEpochDay();
+        return epochDay * MILLIS_PER_DAY + ((hour * 60L + minute) * 60L + second) * 1000L + milli;
+    }
+
+    /**
+     * Convert the decimal digits of a string region to an integer.
+     *
+     * @return the value or -1 if there is a character in the region that is not a decimal digit
+     */
+    private static int digits(String s, int start, int length) {
+        var value = 0;
+        for (int i = start; i < start + length; i++) {
+            final var c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = 10 * value + (c - '0');
+        }
+        return value;
+    }
+
     static String[] splitString(String s) {
         var nameEnd = s.indexOf(":");
         final int typeEnd = s.indexOf("=", nameEnd + 1);
@@ -146,18 +260,107 @@ public class Feature {
      * @return the byte array representation of the feature
      */
     public byte[] serialized() {
-        final var nameBuffer = name.getBytes(StandardCharsets.UTF_8);
+        final var buffer = ByteBuffer.allocate(serializedSize());
+        serializeTo(buffer);
+        return buffer.array();
+    }
+
+    /**
+     * @return the number of bytes the serialized form of the feature occupies. This is the length of the array
+     * returned by {@link #serialized()}.
+     */
+    int serializedSize() {
         final var typeLength = Integer.BYTES;
         final var nameLength = Integer.BYTES + nameBuffer.length;
         final var valueLength = type.fixedSize == VARIABLE_LENGTH ? Integer.BYTES + value.length : type.fixedSize;
-        final var buffer = ByteBuffer.allocate(typeLength + nameLength + valueLength)
-                .putInt(type.serialized)
+        return typeLength + nameLength + valueLength;
+    }
+
+    /**
+     * Write the serialized form of the feature into the buffer at the current position of the buffer. The buffer
+     * has to be in big endian byte order and has to have at least {@link #serializedSize()} bytes remaining.
+     *
+     * @param buffer where the serialized feature is written
+     */
+    void serializeTo(ByteBuffer buffer) {
+        buffer.putInt(type.serialized)
                 .putInt(nameBuffer.length);
         if (type.fixedSize == VARIABLE_LENGTH) {
             buffer.putInt(value.length);
         }
         buffer.put(nameBuffer).put(value);
-        return buffer.array();
+    }
+
+    /**
+     * @return the number of bytes the feature occupies in the compact format. See {@link CompactFormat}.
+     */
+    int compactSize() {
+        final var nameLength = CompactFormat.dictionaryIndex(name) >= 0 ? 1 :
+            CompactFormat.varintSize(nameBuffer.length) + nameBuffer.length;
+        final var valueLength = type.fixedSize == VARIABLE_LENGTH ?
+            CompactFormat.varintSize(value.length) + value.length : type.fixedSize;
+        return 1 + nameLength + valueLength;
+    }
+
+    /**
+     * Write the feature in the compact format into the buffer. The buffer has to have at least
+     * {@link #compactSize()} bytes remaining.
+     *
+     * @param buffer where the feature is written
+     */
+    void compactTo(ByteBuffer buffer) {
+        final var dictionaryIndex = CompactFormat.dictionaryIndex(name);
+        if (dictionaryIndex >= 0) {
+            buffer.put((byte) (type.serialized | CompactFormat.DICTIONARY_FLAG)).put((byte) dictionaryIndex);
+        } else {
+            buffer.put((byte) type.serialized);
+            CompactFormat.putVarint(buffer, nameBuffer.length);
+            buffer.put(nameBuffer);
+        }
+        if (type.fixedSize == VARIABLE_LENGTH) {
+            CompactFormat.putVarint(buffer, value.length);
+        }
+        buffer.put(value);
+    }
+
+    /**
+     * Feed the serialized form of the feature, preceded by its length on four bytes, into the message digest. The
+     * result is the same as if the length and the bytes returned by {@link #serialized()} were passed to the
+     * digest, but the name and the value are passed directly from the feature without copying.
+     *
+     * @param digester the message digest to update
+     * @param scratch  a heap buffer of at least 16 bytes used to assemble the fixed size header
+     */
+    void digestTo(MessageDigest digester, ByteBuffer scratch) {
+        scratch.clear();
+        scratch.putInt(serializedSize())
+                .putInt(type.serialized)
+                .putInt(nameBuffer.length);
+        if (type.fixedSize == VARIABLE_LENGTH) {
+            scratch.putInt(value.length);
+        }
+        digester.update(scratch.array(), scratch.arrayOffset(), scratch.position());
+        digester.update(nameBuffer);
+        digester.update(value);
+    }
+
+    /**
+     * Get the number of bytes that precede the name in the serialized form of a feature. This is the type and the
+     * name length, and for variable length types also the value length, each on four bytes.
+     *
+     * @param typeSerialized the type of the feature as it is stored in the serialized form
+     * @return the offset of the name in the serialized feature
+     */
+    static int nameOffset(int typeSerialized) {
+        return Create.typeFrom(typeSerialized).fixedSize == VARIABLE_LENGTH ? 3 * Integer.BYTES : 2 * Integer.BYTES;
+    }
+
+    /**
+     * @param typeSerialized the type of the feature as it is stored in the serialized form
+     * @return {@code true} if the type is {@code DATE}
+     */
+    static boolean isDateType(int typeSerialized) {
+        return typeSerialized == Type.DATE.serialized;
     }
 
     public boolean isBinary() {
@@ -233,35 +436,35 @@ public class Feature {
         if (type != Type.SHORT) {
             throw new IllegalArgumentException("Feature is not SHORT");
         }
-        return ByteBuffer.wrap(value).getShort();
+        return (short) ((value[0] << 8) | (value[1] & 0xFF));
     }
 
     public int getInt() {
         if (type != Type.INT) {
             throw new IllegalArgumentException("Feature is not INT");
         }
-        return ByteBuffer.wrap(value).getInt();
+        return intAt(value, 0);
     }
 
     public long getLong() {
         if (type != Type.LONG) {
             throw new IllegalArgumentException("Feature is not LONG");
         }
-        return ByteBuffer.wrap(value).getLong();
+        return longAt(value, 0);
     }
 
     public float getFloat() {
         if (type != Type.FLOAT) {
             throw new IllegalArgumentException("Feature is not FLOAT");
         }
-        return ByteBuffer.wrap(value).getFloat();
+        return Float.intBitsToFloat(intAt(value, 0));
     }
 
     public double getDouble() {
         if (type != Type.DOUBLE) {
             throw new IllegalArgumentException("Feature is not DOUBLE");
         }
-        return ByteBuffer.wrap(value).getDouble();
+        return Double.longBitsToDouble(longAt(value, 0));
     }
 
     public BigInteger getBigInteger() {
@@ -275,8 +478,7 @@ public class Feature {
         if (type != Type.BIGDECIMAL) {
             throw new IllegalArgumentException("Feature is not BIGDECIMAL");
         }
-        var bb = ByteBuffer.wrap(value);
-        var scale = bb.getInt(value.length - Integer.BYTES);
+        var scale = intAt(value, value.length - Integer.BYTES);
 
         return new BigDecimal(new BigInteger(Arrays.copyOf(value, value.length - Integer.BYTES)), scale);
     }
@@ -285,17 +487,73 @@ public class Feature {
         if (type != Type.UUID) {
             throw new IllegalArgumentException("Feature is not UUID");
         }
-        var bb = ByteBuffer.wrap(value);
-        final var ls = bb.getLong();
-        final var ms = bb.getLong();
-        return new java.util.UUID(ms, ls);
+        return new java.util.UUID(longAt(value, Long.BYTES), longAt(value, 0));
+    }
+
+    /**
+     * Get the value of a UUID feature without creating a {@link java.util.UUID} object.
+     *
+     * @param holder an array of at least two elements. The most significant bits of the UUID are stored into
+     *               {@code holder[0]} and the least significant bits into {@code holder[1]}.
+     * @return the {@code holder} array
+     */
+    public long[] getUUIDBits(long[] holder) {
+        if (type != Type.UUID) {
+            throw new IllegalArgumentException("Feature is not UUID");
+        }
+        if (holder.length < 2) {
+            throw new IllegalArgumentException("UUID holder has to have at least two elements");
+        }
+        holder[0] = longAt(value, Long.BYTES);
+        holder[1] = longAt(value, 0);
+        return holder;
+    }
+
+    /**
+     * @return the most significant bits of a UUID feature. The type of the feature is not checked.
+     */
+    long uuidMostSignificantBits() {
+        return longAt(value, Long.BYTES);
+    }
+
+    /**
+     * @return the least significant bits of a UUID feature. The type of the feature is not checked.
+     */
+    long uuidLeastSignificantBits() {
+        return longAt(value, 0);
     }
 
     public Date getDate() {
+        return new Date(getDateMillis());
+    }
+
+    /**
+     * Get the value of a date feature without creating a {@link Date} object.
+     *
+     * @return the date as milliseconds since the epoch, the same value as {@code getDate().getTime()}
+     */
+    public long getDateMillis() {
         if (type != Type.DATE) {
             throw new IllegalArgumentException("Feature is not DATE");
         }
-        return new Date(ByteBuffer.wrap(value).getLong());
+        return longAt(value, 0);
+    }
+
+    /**
+     * Decode a big endian {@code int} from the array.
+     */
+    static int intAt(byte[] bytes, int offset) {
+        return (bytes[offset] << 24)
+            | ((bytes[offset + 1] & 0xFF) << 16)
+            | ((bytes[offset + 2] & 0xFF) << 8)
+            | (bytes[offset + 3] & 0xFF);
+    }
+
+    /**
+     * Decode a big endian {@code long} from the array.
+     */
+    static long longAt(byte[] bytes, int offset) {
+        return ((long) intAt(bytes, offset) << 32) | (intAt(bytes, offset + Integer.BYTES) & 0xFFFFFFFFL);
     }
 
     private enum Type {
@@ -512,6 +770,42 @@ public class Feature {
             return new Feature(name, type, value);
         }
 
+        /**
+         * Read a feature in the compact format from the buffer. See {@link CompactFormat}. The position of the buffer
+         * is advanced to the end of the feature.
+         *
+         * @param buffer the buffer containing the feature at its position
+         * @return a new feature object
+         * @throws IllegalArgumentException if the buffer does not contain a valid feature
+         */
+        static Feature fromCompact(ByteBuffer buffer) {
+            try {
+                final var tag = buffer.get() & 0xFF;
+                final var type = typeFrom(tag & CompactFormat.TYPE_MASK);
+                final String name;
+                if ((tag & CompactFormat.DICTIONARY_FLAG) != 0) {
+                    name = CompactFormat.dictionaryName(buffer.get() & 0xFF);
+                } else {
+                    name = new String(compactBytes(buffer, CompactFormat.getVarint(buffer)), StandardCharsets.UTF_8);
+                }
+                final var valueLength = type.fixedSize == VARIABLE_LENGTH ?
+                    CompactFormat.getVarint(buffer) : type.fixedSize;
+                return new Feature(name, type, compactBytes(buffer, valueLength));
+            } catch (BufferUnderflowException e) {
+                throw new IllegalArgumentException("Compact feature binary is too short", e);
+            }
+        }
+
+        private static byte[] compactBytes(ByteBuffer buffer, int length) {
+            if (buffer.remaining() < length) {
+                throw new IllegalArgumentException("Compact feature binary is too short. It is "
+                    + (length - buffer.remaining()) + " bytes shy.");
+            }
+            final var bytes = new byte[length];
+            buffer.get(bytes);
+            return bytes;
+        }
+
         private static Type typeFrom(int typeSerialized) {
             for (final var type : Type.values()) {
                 if (type.serialized == typeSerialized) {
@@ -0,0 +1,101 @@
+package javax0.license3j;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * A compact table of features sorted by the name of the features. The names and the features are stored in two
+ * parallel arrays, and a feature is found by binary search on the names. A new feature is inserted at its sorted
+ * position, therefore iterating the features in the canonical order used by the binary representation of the license
+ * needs no sorting.
+ * <p>
+ * This class is used by the {@link License} implementations. It is not part of the API of the library.
+ */
+final class FeatureTable {
+    private static final int INITIAL_CAPACITY = 8;
+    private String[] names;
+    private Feature[] features;
+    private int size;
+
+    FeatureTable() {
+        this(new String[INITIAL_CAPACITY], new Feature[INITIAL_CAPACITY], 0);
+    }
+
+    private FeatureTable(String[] names, Feature[] features, int size) {
+        this.names = names;
+        this.features = features;
+        this.size = size;
+    }
+
+    /**
+     * @return a new table containing the same features. The arrays of the new table are exactly sized.
+     */
+    FeatureTable copy() {
+        return new FeatureTable(Arrays.copyOf(names, size), Arrays.copyOf(features, size), size);
+    }
+
+    /**
+     * @param name the name of the feature
+     * @return the feature of the given name or {@code null} if there is no such feature in the table
+     */
+    Feature get(String name) {
+        final var index = Arrays.binarySearch(names, 0, size, name);
+        return index < 0 ? null : features[index];
+    }
+
+    /**
+     * Put the feature into the table at the position determined by its name. If there is already a feature with
+     * the same name then it is replaced.
+     *
+     * @param feature the feature to store
+     * @return the feature that was replaced or {@code null} if there was no feature with the same name
+     */
+    Feature put(Feature feature) {
+        final var name = feature.name();
+        final var index = Arrays.binarySearch(names, 0, size, name);
+        if (index >= 0) {
+            final var previous = features[index];
+            features[index] = feature;
+            return previous;
+        }
+        final var insertionPoint = -index - 1;
+        if (size == features.length) {
+            final var capacity = Math.max(INITIAL_CAPACITY, 2 * size);
+            names = Arrays.copyOf(names, capacity);
+            features = Arrays.copyOf(features, capacity);
+        }
+        System.arraycopy(names, insertionPoint, names, insertionPoint + 1, size - insertionPoint);
+        System.arraycopy(features, insertionPoint, features, insertionPoint + 1, size - insertionPoint);
+        names[insertionPoint] = name;
+        features[insertionPoint] = feature;
+        size++;
+        return null;
+    }
+
+    /**
+     * @return the number of features in the table
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the features in sorted order except those that are excluded.
+     *
+     * @param excluded the names of the features not to include in the result
+     * @return a new array with the features
+     */
+    Feature[] sorted(Set<String> excluded) {
+        if (excluded.isEmpty()) {
+            return Arrays.copyOf(features, size);
+        }
+        final var result = new Feature[size];
+        var n = 0;
+        for (int i = 0; i < size; i++) {
+            if (!excluded.contains(names[i])) {
+                result[n++] = features[i];
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+}
@@ -6,6 +6,7 @@ import javax0.license3j.hardware.UUIDCalculator;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.UUID;
 
 /**
@@ -102,6 +103,19 @@ public class HardwareBinder {
         return this;
     }
 
+    /**
+     * Calculate the machine UUID only once and serve the UUID checks from memory. The UUID is recalculated in the
+     * background every {@code refreshInterval}, and also when a new allowed or denied regular expression is added.
+     * Calculating the UUID lists the network interfaces and may need a DNS lookup, thus it is recommended to switch
+     * caching on when {@link #assertUUID(UUID)} is called frequently.
+     *
+     * @param refreshInterval the time between two recalculations of the UUID
+     * @return the HardwareBinder object so method calls can be chained
+     */
+    public HardwareBinder cached(Duration refreshInterval) {
+        calculator.cached(refreshInterval);
+        return this;
+    }
 
     public class Ignore {
         /**
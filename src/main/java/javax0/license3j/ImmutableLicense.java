@@ -0,0 +1,88 @@
+package javax0.license3j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.UUID;
+
+/**
+ * An immutable snapshot of a license. Create an immutable license calling {@link License#freeze()}.
+ * <p>
+ * The features are stored in a compact array sorted by name, and the binary representations of the license as well
+ * as the fingerprint are calculated when the snapshot is created. All the fields of the object are final, therefore
+ * the snapshot can be shared between threads without any synchronization. Reading the features, checking the
+ * signature, getting the binary representation or the fingerprint do not modify the object and do not need any
+ * defensive copy of the internal structures.
+ * <p>
+ * Every method that would modify the license throws {@link UnsupportedOperationException}. Note that the arrays
+ * returned by {@link Feature#getBinary()} are still the arrays stored in the features, and they must not be modified.
+ */
+public final class ImmutableLicense extends License {
+    private final byte[] canonical;
+    private final byte[] canonicalUnsigned;
+    private final UUID fingerprint;
+
+    ImmutableLicense(License license) {
+        super(license);
+        canonical = super.canonical();
+        canonicalUnsigned = super.canonicalUnsigned();
+        fingerprint = super.fingerprint();
+    }
+
+    /**
+     * @return this object, since it is already immutable
+     */
+    @Override
+    public ImmutableLicense freeze() {
+        return this;
+    }
+
+    /**
+     * Immutable license cannot be modified.
+     *
+     * @param feature not used
+     * @return never returns
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Feature add(Feature feature) {
+        throw new UnsupportedOperationException("Immutable license cannot be modified.");
+    }
+
+    @Override
+    public UUID fingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public int serializedSize() {
+        return canonical.length;
+    }
+
+    @Override
+    public int serializeTo(ByteBuffer buffer) {
+        buffer.put(canonical);
+        return canonical.length;
+    }
+
+    @Override
+    public void writeTo(OutputStream os) throws IOException {
+        os.write(canonical);
+    }
+
+    @Override
+    byte[] canonical() {
+        return canonical;
+    }
+
+    @Override
+    byte[] canonicalUnsigned() {
+        return canonicalUnsigned;
+    }
+
+    @Override
+    void digestUnsigned(MessageDigest digester) {
+        digester.update(canonicalUnsigned);
+    }
+}
@@ -8,10 +8,13 @@ import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.lang.reflect.Modifier;
+import java.nio.BufferOverflowException;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.security.*;
 import java.util.*;
 
@@ -21,20 +24,37 @@ import java.util.*;
  * <p>
  * As examples features can be license expiration date and time, number of users allowed to use the software,
  * name of rights and so on.
+ * <p>
+ * A license that is not modified any more can be read by several threads concurrently. The methods that calculate
+ * the binary representation or the fingerprint remember the result in volatile fields, and they publish only fully
+ * calculated values. Modifying the license while other threads read it is not supported, use {@link #freeze()} to
+ * get a snapshot that can be shared.
  */
 public class License {
-    private static final int MAGIC = 0x21CE_4E_5E; // LICE(N=4E)SE
-    final private static String LICENSE_ID = "licenseId";
-    private static final String SIGNATURE_KEY = "licenseSignature";
-    private static final String DIGEST_KEY = "signatureDigest";
-    final private static String EXPIRATION_DATE = "expiryDate";
-    final private Map<String, Feature> features = new HashMap<>();
+    static final int MAGIC = 0x21CE_4E_5E; // LICE(N=4E)SE
+    static final String LICENSE_ID = "licenseId";
+    static final String SIGNATURE_KEY = "licenseSignature";
+    static final String DIGEST_KEY = "signatureDigest";
+    static final String EXPIRATION_DATE = "expiryDate";
+    final FeatureTable features;
+    /*
+     * The canonical binary representations, the digest used as cache key and the fingerprint are calculated when
+     * they are first needed and they are kept until the feature set of the license changes. Every modification of
+     * the features goes through add(Feature), which drops these cached values. The fields are volatile, because read-only methods, possibly
+     * running concurrently, fill them. Each method reads a field once into a local variable, and writes it only
+     * with a fully calculated value.
+     */
+    private volatile byte[] serializedCache;
+    private volatile byte[] unsignedCache;
+    private volatile UUID fingerprintCache;
+    private volatile byte[] unsignedHashCache;
 
     public License() {
+        features = new FeatureTable();
     }
 
     protected License(License license) {
-        features.putAll(license.features);
+        features = license.features.copy();
     }
 
     /**
@@ -62,9 +82,20 @@ public class License {
      * @return {@code true} if the license has expired.
      */
     public boolean isExpired() {
-        final var expiryDate = get(EXPIRATION_DATE).getDate();
-        final var today = new Date();
-        return today.getTime() > expiryDate.getTime();
+        return isExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * Checks the expiration date of the license comparing it to the given time. See {@link #isExpired()}.
+     * <p>
+     * The method does not allocate any object, thus it can be called for every request of a service.
+     *
+     * @param nowMillis the current time in milliseconds since the epoch, typically the value of
+     *                  {@link System#currentTimeMillis()}
+     * @return {@code true} if the license has expired at the given time.
+     */
+    public boolean isExpired(long nowMillis) {
+        return nowMillis > get(EXPIRATION_DATE).getDateMillis();
     }
 
     /**
@@ -75,6 +106,17 @@ public class License {
     public void setExpiry(final Date expiryDate) {
         add(Feature.Create.dateFeature(EXPIRATION_DATE, expiryDate));
     }
+    /**
+     * Create an immutable snapshot of the license. The snapshot contains the same features as the license at the
+     * time of the call, and later changes to this license do not affect the snapshot. The snapshot can be shared
+     * between threads without synchronization. See {@link ImmutableLicense}.
+     *
+     * @return the immutable snapshot of the license
+     */
+    public ImmutableLicense freeze() {
+        return new ImmutableLicense(this);
+    }
+
     /**
      * Sign the license.
      * <p>
@@ -86,7 +128,8 @@ public class License {
      * <li>The license is converted to binary format</li>
      * <li>A digest is created from the binary license using the message digest algorithm named by the {@code digest}
      * parameter</li>
-     * <li>The digest is encrypted using the key (which also has the information about the algorithm).</li>
+     * <li>The digest is encrypted using the key (which also has the information about the algorithm). Elliptic curve
+     * keys ({@code EC}, {@code Ed25519}) cannot encrypt, they sign the digest using a {@link Signature} instead.</li>
      * <li>The encrypted digest is added to the license as a new {@code BINARY} feature as signature.</li>
      * </ol>
      *
@@ -100,14 +143,59 @@ public class License {
      */
     public void sign(PrivateKey key, String digest) throws NoSuchAlgorithmException, NoSuchPaddingException,
         InvalidKeyException, BadPaddingException, IllegalBlockSizeException {
-        add(Feature.Create.stringFeature(DIGEST_KEY, digest));
         final var digester = MessageDigest.getInstance(digest);
-        final var ser = unsigned();
-        final var digestValue = digester.digest(ser);
+        final var algorithm = SignatureAlgorithm.of(key);
+        if (algorithm != null) {
+            final var signer = Signature.getInstance(algorithm);
+            signer.initSign(key);
+            sign(signer, digester, digest);
+            return;
+        }
         final var cipher = Cipher.getInstance(key.getAlgorithm());
         cipher.init(Cipher.ENCRYPT_MODE, key);
-        final var signature = cipher.doFinal(digestValue);
-        add(signature);
+        sign(cipher, digester, digest);
+    }
+
+    /**
+     * Sign the license using an already initialized cipher and message digest. See {@link #sign(PrivateKey, String)}.
+     *
+     * @param cipher   the cipher initialized for encryption with the private key
+     * @param digester the message digest object. It has to be the implementation of the {@code digest} algorithm.
+     * @param digest   the name of the digest algorithm
+     * @throws BadPaddingException       this exception comes from the underlying encryption library
+     * @throws IllegalBlockSizeException this exception comes from the underlying encryption library
+     */
+    void sign(Cipher cipher, MessageDigest digester, String digest) throws BadPaddingException,
+        IllegalBlockSizeException {
+        add(cipher.doFinal(unsignedDigest(digester, digest)));
+    }
+
+    /**
+     * Sign the license using an already initialized signature object and message digest. This is used for the
+     * elliptic curve keys, see {@link #sign(PrivateKey, String)}.
+     *
+     * @param signer   the signature object initialized for signing with the private key
+     * @param digester the message digest object. It has to be the implementation of the {@code digest} algorithm.
+     * @param digest   the name of the digest algorithm
+     * @throws IllegalArgumentException if the signature object cannot sign
+     */
+    void sign(Signature signer, MessageDigest digester, String digest) {
+        try {
+            signer.update(unsignedDigest(digester, digest));
+            add(signer.sign());
+        } catch (SignatureException e) {
+            throw new IllegalArgumentException("The key cannot be used to sign licenses", e);
+        }
+    }
+
+    /**
+     * Add the digest algorithm feature to the license and calculate the digest that is signed.
+     */
+    private byte[] unsignedDigest(MessageDigest digester, String digest) {
+        add(Feature.Create.stringFeature(DIGEST_KEY, digest));
+        digester.reset();
+        digestUnsigned(digester);
+        return digester.digest();
     }
 
     /**
@@ -135,8 +223,15 @@ public class License {
     public boolean isOK(PublicKey key) {
         try {
             final var digester = MessageDigest.getInstance(get(DIGEST_KEY).getString());
-            final var ser = unsigned();
-            final var digestValue = digester.digest(ser);
+            digestUnsigned(digester);
+            final var digestValue = digester.digest();
+            final var algorithm = SignatureAlgorithm.of(key);
+            if (algorithm != null) {
+                final var verifier = Signature.getInstance(algorithm);
+                verifier.initVerify(key);
+                verifier.update(digestValue);
+                return verifier.verify(getSignature());
+            }
             final var cipher = Cipher.getInstance(key.getAlgorithm());
             cipher.init(Cipher.DECRYPT_MODE, key);
             final var sigDigest = cipher.doFinal(getSignature());
@@ -150,6 +245,10 @@ public class License {
      * Add a feature to the license. Note that adding a feature to a license renders the license signature invalid.
      * Adding the feature does not remove the signature features though.
      * <p>
+     * The license remembers its binary representation and fingerprint once they were calculated. Adding a feature
+     * invalidates these values. Modifying the content of a byte array returned by {@link Feature#getBinary()} or
+     * {@link #getSignature()} is not detected, and it is not supported.
+     * <p>
      * The method throws exception in case the feature is the license signature and the type is not {@code BINARY}.
      *
      * @param feature is added to the license
@@ -160,7 +259,11 @@ public class License {
         if (feature.name().equals(SIGNATURE_KEY) && !feature.isBinary()) {
             throw new IllegalArgumentException("Signature of a license has to be binary.");
         }
-        return features.put(feature.name(), feature);
+        serializedCache = null;
+        unsignedCache = null;
+        fingerprintCache = null;
+        unsignedHashCache = null;
+        return features.put(feature);
     }
 
     /**
@@ -209,14 +312,14 @@ public class License {
     }
 
     /**
-     * Get all the features in an array except the excluded ones in sorted order. The sorting is done on the name.
+     * Get all the features in an array except the excluded ones in sorted order. The features are kept sorted by
+     * their name in the feature table, thus there is no sorting needed here.
      *
      * @param excluded the set of the names of the features that are not included to the result
      * @return the array of the features sorted.
      */
     private Feature[] featuresSorted(Set<String> excluded) {
-        return this.features.values().stream().filter(f -> !excluded.contains(f.name()))
-            .sorted(Comparator.comparing(Feature::name)).toArray(Feature[]::new);
+        return features.sorted(excluded);
     }
 
 
@@ -307,15 +410,21 @@ public class License {
      * @return the calculated fingerprint of the license
      */
     public UUID fingerprint() {
-        try {
-            final var bb = ByteBuffer.wrap(MessageDigest.getInstance("MD5").digest(
-                serialized(Set.of(SIGNATURE_KEY, DIGEST_KEY))));
-            final var ms = bb.getLong();
-            final var ls = bb.getLong();
-            return new UUID(ms, ls);
-        } catch (final Exception e) {
-            return null;
+        var fingerprint = fingerprintCache;
+        if (fingerprint == null) {
+            try {
+                final var digester = MessageDigest.getInstance("MD5");
+                digest(digester, Set.of(SIGNATURE_KEY, DIGEST_KEY));
+                final var bb = ByteBuffer.wrap(digester.digest());
+                final var ms = bb.getLong();
+                final var ls = bb.getLong();
+                fingerprint = new UUID(ms, ls);
+                fingerprintCache = fingerprint;
+            } catch (final Exception e) {
+                return null;
+            }
         }
+        return fingerprint;
     }
 
     /**
@@ -336,7 +445,33 @@ public class License {
      * @return the license in binary format as a byte array
      */
     public byte[] serialized() {
-        return serialized(Set.of());
+        return canonical().clone();
+    }
+
+    /**
+     * Get the license in the compact binary format. The compact format stores the lengths as varints, the type of
+     * each feature on a single byte and the most common feature names, like {@code expiryDate} or
+     * {@code licenseSignature}, as a one byte reference to a dictionary. This format is typically half the size of
+     * the one returned by {@link #serialized()}, and it is suitable to embed a license in places where the size
+     * matters, like HTTP headers or tokens.
+     * <p>
+     * The compact format is only a different encoding of the same features. The signature is still calculated over
+     * the bytes returned by {@link #unsigned()}, therefore a license signed and then converted to the compact format
+     * and read back using {@link Create#from(byte[])} is still properly signed.
+     *
+     * @return the license in compact binary format as a byte array
+     */
+    public byte[] serializedCompact() {
+        final var includedFeatures = featuresSorted(Set.of());
+        var size = Integer.BYTES;
+        for (final var feature : includedFeatures) {
+            size += feature.compactSize();
+        }
+        final var buffer = ByteBuffer.allocate(size).putInt(CompactFormat.MAGIC);
+        for (final var feature : includedFeatures) {
+            feature.compactTo(buffer);
+        }
+        return buffer.array();
     }
 
     /**
@@ -347,7 +482,90 @@ public class License {
      * during the signature creation of the license and stored as a feature in the license is also signed.
      */
     public byte[] unsigned() {
-        return serialized(Set.of(SIGNATURE_KEY));
+        return canonicalUnsigned().clone();
+    }
+
+    /**
+     * Feed the binary representation of the license without the signature into the message digest. The digest is
+     * updated with the same bytes as {@link #unsigned()} returns. If the unsigned binary representation is already
+     * cached then it is used, otherwise the features are fed into the digest one after the other without creating
+     * the binary representation of the license in memory.
+     *
+     * @param digester the message digest to update
+     */
+    void digestUnsigned(MessageDigest digester) {
+        final var unsigned = unsignedCache;
+        if (unsigned != null) {
+            digester.update(unsigned);
+        } else {
+            digest(digester, Set.of(SIGNATURE_KEY));
+        }
+    }
+
+    /**
+     * Feed the binary representation of the license, except the excluded features, into the message digest in the
+     * canonical order. Only a small, constant size scratch buffer is allocated, the names and the values of the
+     * features are passed to the digest directly.
+     *
+     * @param digester the message digest to update
+     * @param excluded the names of the features that are not to be digested
+     */
+    private void digest(MessageDigest digester, Set<String> excluded) {
+        final var scratch = ByteBuffer.allocate(4 * Integer.BYTES);
+        scratch.putInt(MAGIC);
+        digester.update(scratch.array(), 0, Integer.BYTES);
+        for (final var feature : featuresSorted(excluded)) {
+            feature.digestTo(digester, scratch);
+        }
+    }
+
+    /**
+     * Get the binary representation of the license the same as {@link #serialized()} but without copying the cached
+     * array. The caller must not modify the returned array.
+     *
+     * @return the cached binary representation of the license
+     */
+    byte[] canonical() {
+        var serialized = serializedCache;
+        if (serialized == null) {
+            serialized = serialized(Set.of());
+            serializedCache = serialized;
+        }
+        return serialized;
+    }
+
+    /**
+     * Get the binary representation of the license without the signature, the same as {@link #unsigned()} but
+     * without copying the cached array. The caller must not modify the returned array.
+     *
+     * @return the cached unsigned binary representation of the license
+     */
+    byte[] canonicalUnsigned() {
+        var unsigned = unsignedCache;
+        if (unsigned == null) {
+            unsigned = serialized(Set.of(SIGNATURE_KEY));
+            unsignedCache = unsigned;
+        }
+        return unsigned;
+    }
+
+    /**
+     * Get the SHA-256 digest of the binary representation of the license without the signature. The digest is a
+     * compact key of the license content, it is used by the {@link VerificationCache}. The caller must not modify the
+     * returned array.
+     *
+     * @return the cached digest of the unsigned binary representation of the license
+     * @throws NoSuchAlgorithmException if the SHA-256 algorithm is not available
+     */
+    byte[] unsignedHash() throws NoSuchAlgorithmException {
+        var hash = unsignedHashCache;
+        if (hash == null) {
+            final var digester = MessageDigest.getInstance("SHA-256");
+            digestUnsigned(digester);
+            hash = digester.digest();
+            unsignedHashCache = hash;
+        }
+        return hash;
     }
 
     /**
@@ -381,24 +599,87 @@ public class License {
      * converted into binary and concatenated and their order is determined by primitive sorting.
      */
     private byte[] serialized(Set<String> excluded) {
-        Feature[] includedFeatures = featuresSorted(excluded);
-        final var featureNr = includedFeatures.length;
-        byte[][] featuresSerialized = new byte[featureNr][];
-        var i = 0;
-        var size = 0;
+        final var includedFeatures = featuresSorted(excluded);
+        final var buffer = ByteBuffer.allocate(serializedSize(includedFeatures));
+        serializeTo(buffer, includedFeatures);
+        return buffer.array();
+    }
+
+    /**
+     * @return the number of bytes the binary representation of the license occupies. This is the length of the
+     * array returned by {@link #serialized()} and the number of bytes {@link #serializeTo(ByteBuffer)} writes.
+     */
+    public int serializedSize() {
+        final var serialized = serializedCache;
+        if (serialized != null) {
+            return serialized.length;
+        }
+        return serializedSize(featuresSorted(Set.of()));
+    }
+
+    /**
+     * Write the binary representation of the license into the buffer starting at the current position of the
+     * buffer. The written bytes are the same as the ones returned by {@link #serialized()} but there is no
+     * intermediate array allocated. The buffer can be a heap or a direct buffer. The byte order set on the buffer is
+     * ignored, the license is always written in big endian byte order and the byte order of the buffer is restored
+     * after the write.
+     *
+     * @param buffer the buffer where the license is written
+     * @return the number of bytes written into the buffer
+     * @throws java.nio.BufferOverflowException if there is not enough room in the buffer. In this case nothing is
+     *                                          written into the buffer.
+     */
+    public int serializeTo(ByteBuffer buffer) {
+        final var serialized = serializedCache;
+        if (serialized != null) {
+            buffer.put(serialized);
+            return serialized.length;
+        }
+        final var includedFeatures = featuresSorted(Set.of());
+        final var size = serializedSize(includedFeatures);
+        if (buffer.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        final var order = buffer.order();
+        try {
+            serializeTo(buffer.order(ByteOrder.BIG_ENDIAN), includedFeatures);
+        } finally {
+            buffer.order(order);
+        }
+        return size;
+    }
+
+    /**
+     * Write the binary representation of the license to the output stream. The written bytes are the same as the
+     * ones returned by {@link #serialized()}.
+     *
+     * @param os the output stream to write the license to
+     * @throws IOException if the output cannot be written
+     */
+    public void writeTo(OutputStream os) throws IOException {
+        os.write(canonical());
+    }
+
+    private static int serializedSize(Feature[] includedFeatures) {
+        var size = Integer.BYTES;
         for (final var feature : includedFeatures) {
-            featuresSerialized[i] = feature.serialized();
-            size += featuresSerialized[i].length;
-            i++;
+            size += Integer.BYTES + feature.serializedSize();
         }
+        return size;
+    }
 
-        final var buffer = ByteBuffer.allocate(size + Integer.BYTES * (featureNr + 1));
+    /**
+     * Write the magic number and the features, each preceded by its length, into the buffer.
+     *
+     * @param buffer           the big endian buffer that has enough room for the license
+     * @param includedFeatures the features in the order they are to be written
+     */
+    private static void serializeTo(ByteBuffer buffer, Feature[] includedFeatures) {
         buffer.putInt(MAGIC);
-        for (final var featureSerialized : featuresSerialized) {
-            buffer.putInt(featureSerialized.length);
-            buffer.put(featureSerialized);
+        for (final var feature : includedFeatures) {
+            buffer.putInt(feature.serializedSize());
+            feature.serializeTo(buffer);
         }
-        return buffer.array();
     }
 
     /**
@@ -406,7 +687,9 @@ public class License {
      */
     public static class Create {
         /**
-         * Create a license from the binary byte array representation.
+         * Create a license from the binary byte array representation. The array can be either the one created by
+         * {@link License#serialized()} or the compact one created by {@link License#serializedCompact()}. The format
+         * is recognized from the first four bytes of the array.
          *
          * @param array the binary byte array representation of the license
          * @return the license object
@@ -418,6 +701,12 @@ public class License {
             final var license = new License();
             final var buffer = ByteBuffer.wrap(array);
             final var magic = buffer.getInt();
+            if (magic == CompactFormat.MAGIC) {
+                while (buffer.hasRemaining()) {
+                    license.add(Feature.Create.fromCompact(buffer));
+                }
+                return license;
+            }
             if (magic != MAGIC) {
                 throw new IllegalArgumentException("serialized license is corrupt");
             }
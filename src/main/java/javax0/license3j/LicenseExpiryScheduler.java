@@ -0,0 +1,194 @@
+package javax0.license3j;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notify the application when licenses expire, instead of polling {@link License#isExpired()}.
+ * <p>
+ * Each registered license is scheduled on a single scheduler thread at the time of the {@code expiryDate} feature
+ * of the license and, when a warning period is configured, also at the start of the warning period. The scheduler
+ * keeps the pending events in a priority queue ordered by time, therefore registering and unregistering a license
+ * costs O(log n) and the licenses are not scanned periodically. When the time of an event comes the
+ * {@link Listener} is called on the scheduler thread. The listener should return fast. If the application wants to
+ * handle the events on other threads, the listener can put the licenses into a queue.
+ * <p>
+ * A license is expired when the current time is after the expiry date (see {@link License#isExpired()}). The events
+ * are scheduled using the time of the registration, the changes of the wall clock after the registration are not
+ * followed.
+ * <p>
+ * The scheduler is thread safe. The scheduler thread is a daemon thread, and it is stopped when the scheduler is
+ * closed.
+ */
+public class LicenseExpiryScheduler implements Closeable {
+
+    private final long warningMillis;
+    private final Listener listener;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Create a new scheduler without warning period.
+     *
+     * @param listener the listener to call when a license expires
+     */
+    public LicenseExpiryScheduler(Listener listener) {
+        this(Duration.ZERO, listener);
+    }
+
+    /**
+     * Create a new scheduler.
+     *
+     * @param warningPeriod the time before the expiry when {@link Listener#expiring(License)} is called. When it is
+     *                      zero then {@link Listener#expiring(License)} is not called.
+     * @param listener      the listener to call when a license enters the warning period or expires
+     */
+    public LicenseExpiryScheduler(Duration warningPeriod, Listener listener) {
+        if (warningPeriod.isNegative()) {
+            throw new IllegalArgumentException("Warning period cannot be negative.");
+        }
+        this.warningMillis = warningPeriod.toMillis();
+        this.listener = listener;
+        this.executor = new ScheduledThreadPoolExecutor(1, r -> {
+            final var thread = new Thread(r, "license3j-expiry-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * The callbacks of the scheduler.
+     */
+    public interface Listener {
+        /**
+         * Called when the license enters the warning period. When the license is registered inside the warning
+         * period then it is called right after the registration. It is not called when the license is already
+         * expired when it is registered.
+         *
+         * @param license the license
+         */
+        default void expiring(License license) {
+        }
+
+        /**
+         * Called when the license expires. When the license is already expired when it is registered then it is
+         * called right after the registration.
+         *
+         * @param license the license
+         */
+        void expired(License license);
+    }
+
+    /**
+     * Schedule the events of the license.
+     *
+     * @param license the license to watch
+     * @return the registration that can be used to cancel the events, or {@code null} if the license does not have
+     * an expiry date
+     * @throws IllegalArgumentException if the {@code expiryDate} feature of the license is not a date
+     * @throws IllegalStateException    if the scheduler is already closed
+     */
+    public Registration register(License license) {
+        final var expiry = license.get(License.EXPIRATION_DATE);
+        if (expiry == null) {
+            return null;
+        }
+        if (!expiry.isDate()) {
+            throw new IllegalArgumentException("Feature " + License.EXPIRATION_DATE + " is not a date");
+        }
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("The scheduler is closed.");
+        }
+        final var registration = new Registration(license);
+        registrations.add(registration);
+        final var expiredIn = expiredIn(expiry.getDateMillis(), System.currentTimeMillis());
+        synchronized (registration) {
+            try {
+                if (warningMillis > 0 && expiredIn > 0) {
+                    registration.warning = executor.schedule(() -> listener.expiring(license),
+                        Math.max(0, expiredIn - warningMillis), TimeUnit.MILLISECONDS);
+                }
+                registration.expiry = executor.schedule(() -> {
+                    registrations.remove(registration);
+                    listener.expired(license);
+                }, expiredIn, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                registrations.remove(registration);
+                throw new IllegalStateException("The scheduler is closed.", e);
+            }
+        }
+        return registration;
+    }
+
+    /**
+     * Calculate the time until the license expires. The expiry date can be any value, even {@link Long#MAX_VALUE}
+     * or {@link Long#MIN_VALUE} milliseconds, therefore the calculation saturates instead of overflowing.
+     *
+     * @param expiryMillis the expiry date of the license
+     * @param nowMillis    the current time
+     * @return the milliseconds until the license expires, zero if it is already expired
+     */
+    static long expiredIn(long expiryMillis, long nowMillis) {
+        if (expiryMillis < nowMillis) {
+            return 0;
+        }
+        final var untilExpiry = expiryMillis - nowMillis;
+        return untilExpiry < 0 || untilExpiry == Long.MAX_VALUE ? Long.MAX_VALUE : untilExpiry + 1;
+    }
+
+    /**
+     * @return the number of registered licenses that have not expired yet and were not cancelled
+     */
+    public int size() {
+        return registrations.size();
+    }
+
+    /**
+     * Stop the scheduler thread. The pending events are dropped. Licenses cannot be registered after the scheduler
+     * was closed.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        registrations.clear();
+    }
+
+    /**
+     * The handle of a registered license.
+     */
+    public class Registration {
+        private final License license;
+        private ScheduledFuture<?> warning;
+        private ScheduledFuture<?> expiry;
+
+        private Registration(License license) {
+            this.license = license;
+        }
+
+        /**
+         * @return the registered license
+         */
+        public License license() {
+            return license;
+        }
+
+        /**
+         * Cancel the events of the license that were not fired yet. Call it when the license is not used any more,
+         * for example when it is replaced by a renewed license.
+         */
+        public synchronized void cancel() {
+            if (warning != null) {
+                warning.cancel(false);
+            }
+            expiry.cancel(false);
+            registrations.remove(this);
+        }
+    }
+}
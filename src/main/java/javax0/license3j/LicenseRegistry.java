@@ -0,0 +1,220 @@
+package javax0.license3j;
+
+import javax0.license3j.io.IOFormat;
+import javax0.license3j.io.LicenseArchiveReader;
+import javax0.license3j.io.LicenseReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A registry of verified licenses, shared by the components of an application that handles many licenses, for
+ * example one for each tenant.
+ * <p>
+ * Every license is verified when it is registered and it is stored as an {@link ImmutableLicense}, therefore the
+ * fingerprint of the license is calculated only once. The licenses can be looked up by the license identifier and by
+ * the fingerprint. A license that does not have a license identifier is identified by its fingerprint, the same way
+ * as in case of {@link RevocableLicense#getRevocationURL()}.
+ * <p>
+ * The registry is thread safe. The lookups do not lock, they read concurrent hash maps. The modifications are
+ * serialized, and a renewed license replaces the old one atomically: the lookup by the license identifier returns
+ * either the old or the new license, but never {@code null}.
+ */
+public class LicenseRegistry {
+    private final LicenseVerifier verifier;
+    private final ConcurrentHashMap<UUID, ImmutableLicense> byId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, ImmutableLicense> byFingerprint = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new, empty registry.
+     *
+     * @param verifier the verifier used to check the signature of the licenses when they are registered
+     */
+    public LicenseRegistry(LicenseVerifier verifier) {
+        this.verifier = verifier;
+    }
+
+    /**
+     * Verify and register the license. If there is a license registered with the same license identifier then it is
+     * replaced.
+     *
+     * @param license the license to register
+     * @return the license that was replaced or {@code null} if there was no license registered with the identifier
+     * @throws IllegalArgumentException if the signature of the license is not valid
+     */
+    public ImmutableLicense register(License license) {
+        return put(verified(license));
+    }
+
+    /**
+     * Replace the license with the renewed version, but only if the license is still registered. The renewed license
+     * may have a different license identifier than the replaced one.
+     *
+     * @param current the license that is renewed, as it was returned from the registry
+     * @param renewed the new version of the license
+     * @return {@code true} if the license was replaced and {@code false} if {@code current} is not registered any
+     * more, for example because it was replaced by another thread. In this case the renewed license is not
+     * registered.
+     * @throws IllegalArgumentException if the signature of the renewed license is not valid, or the renewed license
+     *                                  has a different license identifier than {@code current} and another license
+     *                                  is registered with that identifier
+     */
+    public boolean replace(ImmutableLicense current, License renewed) {
+        final var license = verified(renewed);
+        synchronized (this) {
+            if (byFingerprint.get(current.fingerprint()) != current) {
+                return false;
+            }
+            final var currentKey = key(current);
+            final var renewedKey = key(license);
+            if (!currentKey.equals(renewedKey)) {
+                if (byId.containsKey(renewedKey)) {
+                    throw new IllegalArgumentException("Another license is registered with the id " + renewedKey);
+                }
+                byId.remove(currentKey);
+                byFingerprint.remove(current.fingerprint());
+            }
+            put(license);
+            return true;
+        }
+    }
+
+    /**
+     * Remove the license from the registry.
+     *
+     * @param licenseId the identifier of the license, or the fingerprint of a license that has no identifier
+     * @return the removed license or {@code null} if there was no license registered with the identifier
+     */
+    public synchronized ImmutableLicense remove(UUID licenseId) {
+        final var removed = byId.remove(licenseId);
+        if (removed != null) {
+            byFingerprint.remove(removed.fingerprint());
+        }
+        return removed;
+    }
+
+    /**
+     * @param licenseId the identifier of the license, or the fingerprint of a license that has no identifier
+     * @return the license or {@code null} if there is no license registered with the identifier
+     */
+    public ImmutableLicense get(UUID licenseId) {
+        return byId.get(licenseId);
+    }
+
+    /**
+     * @param fingerprint the fingerprint of the license, see {@link License#fingerprint()}
+     * @return the license or {@code null} if there is no license registered with the fingerprint
+     */
+    public ImmutableLicense getByFingerprint(UUID fingerprint) {
+        return byFingerprint.get(fingerprint);
+    }
+
+    /**
+     * @return the number of registered licenses
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * @return an unmodifiable view of the registered licenses. The view reflects the later modifications of the
+     * registry.
+     */
+    public Collection<ImmutableLicense> licenses() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    /**
+     * Read all the regular files in the directory as licenses and register them. The files are read and the licenses
+     * are verified in parallel using the threads of the common {@link java.util.concurrent.ForkJoinPool}.
+     * <p>
+     * The licenses are registered only if all the files could be read and all the licenses are valid.
+     *
+     * @param directory the directory containing the license files
+     * @param format    the format of the license files
+     * @return the number of licenses added to the registry. A license replacing an already registered license with
+     * the same identifier, or with the same fingerprint if it has no identifier, is not counted.
+     * @throws IOException              if the directory or a file cannot be read
+     * @throws IllegalArgumentException if a file is not a valid license
+     */
+    public int load(Path directory, IOFormat format) throws IOException {
+        final List<Path> files;
+        try (final var list = Files.list(directory)) {
+            files = list.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        final List<ImmutableLicense> licenses;
+        try {
+            licenses = files.parallelStream().map(file -> {
+                try (final var reader = new LicenseReader(FileChannel.open(file))) {
+                    return verified(reader.read(format));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("File " + file + " is not a valid license.", e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return putAll(licenses);
+    }
+
+    /**
+     * Register all the licenses of the license archive. The licenses are converted and verified in parallel using
+     * the threads of the common {@link java.util.concurrent.ForkJoinPool}.
+     * <p>
+     * The licenses are registered only if all the licenses in the archive are valid.
+     *
+     * @param archive the archive containing the licenses
+     * @return the number of licenses added to the registry. A license replacing an already registered license with
+     * the same identifier, or with the same fingerprint if it has no identifier, is not counted.
+     * @throws IllegalArgumentException if a license in the archive is not valid or the archive is corrupt
+     */
+    public int load(LicenseArchiveReader archive) {
+        return putAll(IntStream.range(0, archive.size()).parallel()
+            .mapToObj(i -> verified(archive.get(i).toLicense()))
+            .collect(Collectors.toList()));
+    }
+
+    private synchronized int putAll(List<ImmutableLicense> licenses) {
+        var added = 0;
+        for (final var license : licenses) {
+            if (put(license) == null) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private synchronized ImmutableLicense put(ImmutableLicense license) {
+        final var previous = byId.put(key(license), license);
+        if (previous != null && !previous.fingerprint().equals(license.fingerprint())) {
+            byFingerprint.remove(previous.fingerprint());
+        }
+        byFingerprint.put(license.fingerprint(), license);
+        return previous;
+    }
+
+    private ImmutableLicense verified(License license) {
+        final var frozen = license.freeze();
+        if (!verifier.verify(frozen)) {
+            throw new IllegalArgumentException("License signature is not valid.");
+        }
+        return frozen;
+    }
+
+    private static UUID key(License license) {
+        final var id = license.get(License.LICENSE_ID);
+        return id != null && id.isUUID() ? id.getUUID() : license.fingerprint();
+    }
+}
@@ -0,0 +1,215 @@
+package javax0.license3j;
+
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.NoSuchPaddingException;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A license signer is bound to a private key and a digest algorithm and signs licenses the same way as
+ * {@link License#sign(PrivateKey, String)} does.
+ * <p>
+ * The signer keeps the initialized {@link Cipher} (or {@link Signature} for elliptic curve keys) and
+ * {@link MessageDigest} objects for each thread that uses it, therefore signing a license needs no security provider
+ * lookup. The method {@link #signAll(Stream, Consumer)} and its variants sign a stream of licenses on many threads.
+ * <p>
+ * The signer is thread safe.
+ */
+public class LicenseSigner {
+    private final PrivateKey key;
+    private final String digest;
+    private final String signatureAlgorithm;
+    private final ThreadLocal<Cipher> cipher;
+    private final ThreadLocal<Signature> signer;
+    private final ThreadLocal<MessageDigest> digester;
+
+    /**
+     * Create a new signer. The constructor checks that the key and the digest algorithm can be used, so that the
+     * signing later does not fail because of configuration errors.
+     *
+     * @param key    the private key to be used to create the signatures
+     * @param digest the name of the digest algorithm
+     * @throws NoSuchAlgorithmException this exception comes from the underlying encryption library
+     * @throws NoSuchPaddingException   this exception comes from the underlying encryption library
+     * @throws InvalidKeyException      this exception comes from the underlying encryption library
+     */
+    public LicenseSigner(PrivateKey key, String digest) throws NoSuchAlgorithmException, NoSuchPaddingException,
+        InvalidKeyException {
+        this.key = key;
+        this.digest = digest;
+        this.signatureAlgorithm = SignatureAlgorithm.of(key);
+        final var firstDigester = MessageDigest.getInstance(digest);
+        this.digester = ThreadLocal.withInitial(this::newDigester);
+        this.cipher = ThreadLocal.withInitial(this::newCipher);
+        this.signer = ThreadLocal.withInitial(this::newSigner);
+        this.digester.set(firstDigester);
+        if (signatureAlgorithm != null) {
+            final var firstSigner = Signature.getInstance(signatureAlgorithm);
+            firstSigner.initSign(key);
+            this.signer.set(firstSigner);
+        } else {
+            final var firstCipher = Cipher.getInstance(key.getAlgorithm());
+            firstCipher.init(Cipher.ENCRYPT_MODE, key);
+            this.cipher.set(firstCipher);
+        }
+    }
+
+    /**
+     * Sign the license. The result is the same as calling {@link License#sign(PrivateKey, String)} with the key and
+     * the digest of the signer.
+     *
+     * @param license the license to sign
+     * @throws BadPaddingException       this exception comes from the underlying encryption library
+     * @throws IllegalBlockSizeException this exception comes from the underlying encryption library
+     */
+    public void sign(License license) throws BadPaddingException, IllegalBlockSizeException {
+        try {
+            if (signatureAlgorithm != null) {
+                license.sign(signer.get(), digester.get(), digest);
+            } else {
+                license.sign(cipher.get(), digester.get(), digest);
+            }
+        } catch (GeneralSecurityException | RuntimeException e) {
+            cipher.remove();
+            signer.remove();
+            throw e;
+        }
+    }
+
+    /**
+     * Sign all the licenses of the stream using the threads of the common {@link ForkJoinPool} and pass the signed
+     * licenses to the sink in the order of the stream. See {@link #signAll(Stream, Consumer, Executor, int, boolean)}.
+     *
+     * @param licenses the licenses to sign
+     * @param sink     receives the signed licenses
+     */
+    public void signAll(Stream<? extends License> licenses, Consumer<? super License> sink) {
+        signAll(licenses, sink, ForkJoinPool.commonPool(), 4 * Runtime.getRuntime().availableProcessors(), true);
+    }
+
+    /**
+     * Sign all the licenses of the stream in parallel.
+     * <p>
+     * The licenses are taken from the stream one by one, and each is signed as a separate task on the executor. At
+     * most {@code window} licenses are taken from the stream that are not passed to the sink yet. When this limit is
+     * reached then reading the stream waits until a signed license is passed to the sink. That way the memory used
+     * by the signing is bounded even when the stream is very long, for example when it generates the licenses on
+     * the fly.
+     * <p>
+     * The sink is always invoked on the calling thread, thus it does not need to be thread safe. The method returns
+     * after all the licenses were passed to the sink.
+     *
+     * @param licenses the licenses to sign
+     * @param sink     receives the signed licenses
+     * @param executor the executor that runs the signing tasks
+     * @param window   the maximum number of licenses being signed or waiting to be passed to the sink
+     * @param ordered  {@code true} if the licenses have to be passed to the sink in the order of the stream, and
+     *                 {@code false} if they are passed to the sink as soon as they are signed
+     * @throws IllegalStateException if signing any of the licenses fails. In this case the licenses that are already
+     *                               being signed are finished, but they are not passed to the sink and no more
+     *                               licenses are taken from the stream.
+     */
+    public void signAll(Stream<? extends License> licenses, Consumer<? super License> sink, Executor executor,
+                        int window, boolean ordered) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Signing window has to be positive.");
+        }
+        final var inFlight = new ArrayDeque<CompletableFuture<License>>(window);
+        final var completed = new LinkedBlockingQueue<CompletableFuture<License>>();
+        final var iterator = licenses.iterator();
+        try {
+            while (true) {
+                if (inFlight.size() == window) {
+                    sink.accept(next(inFlight, completed, ordered));
+                }
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                final License license = iterator.next();
+                final var future = CompletableFuture.supplyAsync(() -> signed(license), executor);
+                inFlight.add(future);
+                if (!ordered) {
+                    future.whenComplete((l, e) -> completed.add(future));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                sink.accept(next(inFlight, completed, ordered));
+            }
+        } catch (CompletionException e) {
+            inFlight.forEach(future -> future.handle((l, x) -> l).join());
+            throw new IllegalStateException("Signing the license failed", e.getCause());
+        }
+    }
+
+    /**
+     * Wait for the next license to be passed to the sink. In ordered mode this is the oldest license, otherwise
+     * whichever is signed first.
+     */
+    private static License next(ArrayDeque<CompletableFuture<License>> inFlight,
+                                LinkedBlockingQueue<CompletableFuture<License>> completed, boolean ordered) {
+        final CompletableFuture<License> future;
+        if (ordered) {
+            future = inFlight.remove();
+        } else {
+            try {
+                future = completed.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the licenses to be signed", e);
+            }
+            inFlight.remove(future);
+        }
+        return future.join();
+    }
+
+    private License signed(License license) {
+        try {
+            sign(license);
+            return license;
+        } catch (GeneralSecurityException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private MessageDigest newDigester() {
+        try {
+            return MessageDigest.getInstance(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Cipher newCipher() {
+        try {
+            final var cipher = Cipher.getInstance(key.getAlgorithm());
+            cipher.init(Cipher.ENCRYPT_MODE, key);
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Signature newSigner() {
+        try {
+            final var signer = Signature.getInstance(signatureAlgorithm);
+            signer.initSign(key);
+            return signer;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
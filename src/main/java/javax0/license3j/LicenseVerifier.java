@@ -0,0 +1,356 @@
+package javax0.license3j;
+
+import javax0.license3j.crypto.LicenseKeyPair;
+
+import javax.crypto.Cipher;
+import java.lang.reflect.Modifier;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A license verifier is bound to a single public key and checks the signature of licenses the same way as
+ * {@link License#isOK(PublicKey)} does.
+ * <p>
+ * The difference is that the verifier decodes the key only once, when it is created, and it keeps the initialized
+ * {@link Cipher} (or {@link Signature} for elliptic curve keys) and the {@link MessageDigest} objects for each thread
+ * that uses the verifier. That way checking the signature of a license does not need any security provider lookup or
+ * key decoding. Applications that check the
+ * license frequently, for example on every request they serve, should create one verifier and use it in all threads.
+ * <p>
+ * The verifier is thread safe.
+ */
+public class LicenseVerifier {
+    private final PublicKey key;
+    private final String signatureAlgorithm;
+    private final ThreadLocal<Cipher> cipher;
+    private final ThreadLocal<Signature> signer;
+    private final ThreadLocal<Map<String, MessageDigest>> digesters = ThreadLocal.withInitial(HashMap::new);
+    private volatile VerificationCache cache;
+
+    /**
+     * Create a new verifier that will check the signatures using the public key.
+     *
+     * @param key the public key used to check the authenticity of the license signatures
+     */
+    public LicenseVerifier(PublicKey key) {
+        this.key = key;
+        this.signatureAlgorithm = SignatureAlgorithm.of(key);
+        this.cipher = ThreadLocal.withInitial(this::newCipher);
+        this.signer = ThreadLocal.withInitial(this::newSigner);
+    }
+
+    /**
+     * Create a new verifier from the serialized public key. The key is the same format that can be passed to
+     * {@link License#isOK(byte[])}. The key is decoded only once when the verifier is created.
+     *
+     * @param key serialized public key
+     * @throws NoSuchAlgorithmException if the algorithm in the encoded key is not implemented by the actual
+     *                                  encryption provider
+     * @throws InvalidKeySpecException  if the bytes of the key are garbage and cannot be decoded by the actual
+     *                                  encryption provider.
+     */
+    public LicenseVerifier(byte[] key) throws NoSuchAlgorithmException, InvalidKeySpecException {
+        this(LicenseKeyPair.Create.from(key, Modifier.PUBLIC).getPair().getPublic());
+    }
+
+    /**
+     * Attach a cache to the verifier. When there is a cache attached to the verifier then the successfully verified
+     * licenses are stored in the cache and checking the same, unchanged license again needs only a cache lookup. The
+     * same cache may be shared by several verifiers only if they use the same public key.
+     *
+     * @param cache the cache to use, or {@code null} to switch off caching
+     * @return the verifier object so method calls can be chained
+     * @throws IllegalArgumentException if the cache is already used by a verifier with a different public key
+     */
+    public LicenseVerifier cached(VerificationCache cache) {
+        if (cache != null) {
+            cache.bind(key);
+        }
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * Returns true if the license is signed and the authenticity of the signature can be checked successfully
+     * using the key of the verifier. The result is the same as the one of {@link License#isOK(PublicKey)}.
+     *
+     * @param license the license to check
+     * @return {@code true} if the license was properly signed and is intact. In any other cases it returns
+     * {@code false}.
+     */
+    public boolean verify(License license) {
+        try {
+            final var signature = license.getSignature();
+            final var cache = this.cache;
+            if (cache == null) {
+                final var digester = digester(license.get(License.DIGEST_KEY).getString());
+                license.digestUnsigned(digester);
+                return matches(digester.digest(), signature);
+            }
+            final var hash = license.unsignedHash();
+            if (cache.contains(signature, hash)) {
+                return true;
+            }
+            final var digester = digester(license.get(License.DIGEST_KEY).getString());
+            license.digestUnsigned(digester);
+            final var ok = matches(digester.digest(), signature);
+            if (ok) {
+                cache.put(signature, hash);
+            }
+            return ok;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if the license view is signed and the authenticity of the signature can be checked successfully
+     * using the key of the verifier. The digest is calculated directly from the buffer the view was created from.
+     * The cache attached to the verifier is not used for license views.
+     *
+     * @param license the license view to check
+     * @return {@code true} if the license was properly signed and is intact. In any other cases it returns
+     * {@code false}.
+     */
+    public boolean verify(LicenseView license) {
+        try {
+            final var digester = digester(license.get(License.DIGEST_KEY).getString());
+            license.digestUnsigned(digester);
+            return matches(digester.digest(), license.getSignature());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Verify many licenses in parallel using the threads of the common {@link ForkJoinPool}. See
+     * {@link #verifyAll(Collection, Executor)}.
+     *
+     * @param licenses the licenses to verify
+     * @return the result of the verification
+     */
+    public BatchResult verifyAll(Collection<? extends License> licenses) {
+        return verifyAll(licenses, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Verify the licenses supplied by the stream in parallel using the threads of the common {@link ForkJoinPool}.
+     * The index of a license in the result is the position of the license in the stream. The stream is consumed
+     * before the verification starts.
+     *
+     * @param licenses the licenses to verify
+     * @return the result of the verification
+     */
+    public BatchResult verifyAll(Stream<? extends License> licenses) {
+        return verifyAll(licenses.collect(Collectors.toList()));
+    }
+
+    /**
+     * Verify many licenses in parallel. The licenses are split into chunks and each chunk is verified as a separate
+     * task on the executor. Each thread of the executor uses its own cryptographic objects, the same way as when
+     * {@link #verify(License)} is called from several threads. The method returns when all the licenses are
+     * verified.
+     *
+     * @param licenses the licenses to verify
+     * @param executor the executor that runs the verification tasks
+     * @return the result of the verification. The index of a license in the result is the position of the license
+     * in the iteration order of the collection.
+     */
+    public BatchResult verifyAll(Collection<? extends License> licenses, Executor executor) {
+        final var start = System.nanoTime();
+        final var array = licenses.toArray(new License[0]);
+        final var results = new boolean[array.length];
+        final var chunks = Math.min(array.length, 4 * Runtime.getRuntime().availableProcessors());
+        final var tasks = new CompletableFuture<?>[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            final var from = (int) ((long) array.length * chunk / chunks);
+            final var to = (int) ((long) array.length * (chunk + 1) / chunks);
+            tasks[chunk] = CompletableFuture.runAsync(() -> {
+                for (int i = from; i < to; i++) {
+                    results[i] = verify(array[i]);
+                }
+            }, executor);
+        }
+        CompletableFuture.allOf(tasks).join();
+        final var valid = new BitSet(array.length);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i]) {
+                valid.set(i);
+            }
+        }
+        return new BatchResult(valid, array.length, System.nanoTime() - start);
+    }
+
+    /**
+     * The result of a batch verification. It contains the verification status of each license and the statistics
+     * of the verification.
+     */
+    public static class BatchResult {
+        private final BitSet valid;
+        private final int size;
+        private final long elapsedNanos;
+
+        private BatchResult(BitSet valid, int size, long elapsedNanos) {
+            this.valid = valid;
+            this.size = size;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @param index the index of the license in the batch
+         * @return {@code true} if the license at the index was successfully verified
+         */
+        public boolean isValid(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " is out of the batch of " + size);
+            }
+            return valid.get(index);
+        }
+
+        /**
+         * @return a new bit set that has the bits set for the licenses that were successfully verified
+         */
+        public BitSet valid() {
+            return (BitSet) valid.clone();
+        }
+
+        /**
+         * @return the number of the licenses in the batch
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return the number of the licenses that were successfully verified
+         */
+        public int validCount() {
+            return valid.cardinality();
+        }
+
+        /**
+         * @return the number of the licenses that failed the verification
+         */
+        public int invalidCount() {
+            return size - validCount();
+        }
+
+        /**
+         * @return the wall clock time the verification of the batch took in nanoseconds
+         */
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * @return the number of licenses verified per second
+         */
+        public double licensesPerSecond() {
+            return elapsedNanos == 0 ? 0 : size * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d licenses, %d valid, %d invalid, %.3f ms, %.1f licenses/s",
+                size, validCount(), invalidCount(), elapsedNanos / 1_000_000.0, licensesPerSecond());
+        }
+    }
+
+    /**
+     * Check the signature against the digest of the license. The signature of an elliptic curve key is verified using
+     * the {@link Signature} object of the current thread, otherwise the signature is decrypted and compared to the
+     * digest. If the verification fails with an exception then the signature object is dropped the same way as the
+     * cipher in {@link #decrypt(byte[])}.
+     *
+     * @param digestValue the digest of the license
+     * @param signature   the signature of the license
+     * @return {@code true} if the signature matches the digest
+     * @throws GeneralSecurityException if the signature cannot be checked
+     */
+    private boolean matches(byte[] digestValue, byte[] signature) throws GeneralSecurityException {
+        if (signatureAlgorithm == null) {
+            return Arrays.equals(digestValue, decrypt(signature));
+        }
+        try {
+            final var verifier = signer.get();
+            verifier.update(digestValue);
+            return verifier.verify(signature);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            signer.remove();
+            throw e;
+        }
+    }
+
+    /**
+     * Decrypt the signature using the cipher of the current thread. If the decryption fails the cipher is dropped,
+     * so that the next call in the same thread will get a freshly initialized one and will not depend on the state
+     * the failed call may have left in the cipher object.
+     *
+     * @param signature the signature to decrypt
+     * @return the decrypted digest
+     * @throws GeneralSecurityException if the signature cannot be decrypted
+     */
+    private byte[] decrypt(byte[] signature) throws GeneralSecurityException {
+        try {
+            return cipher.get().doFinal(signature);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            cipher.remove();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the message digest of the current thread for the given algorithm. The digest objects are reset after
+     * each {@link MessageDigest#digest()} call, therefore they can be reused. The digest is reset here as well, in
+     * case a previous call was interrupted by an exception after the digest was updated.
+     *
+     * @param algorithm the name of the message digest algorithm
+     * @return the digest object
+     * @throws NoSuchAlgorithmException if the algorithm is not known by the encryption provider
+     */
+    private MessageDigest digester(String algorithm) throws NoSuchAlgorithmException {
+        final var map = digesters.get();
+        var digester = map.get(algorithm);
+        if (digester == null) {
+            digester = MessageDigest.getInstance(algorithm);
+            map.put(algorithm, digester);
+        } else {
+            digester.reset();
+        }
+        return digester;
+    }
+
+    private Cipher newCipher() {
+        try {
+            final var cipher = Cipher.getInstance(key.getAlgorithm());
+            cipher.init(Cipher.DECRYPT_MODE, key);
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("The key cannot be used to verify licenses", e);
+        }
+    }
+
+    private Signature newSigner() {
+        try {
+            final var signer = Signature.getInstance(signatureAlgorithm);
+            signer.initVerify(key);
+            return signer;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("The key cannot be used to verify licenses", e);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package javax0.license3j;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * A read-only view of a license in binary format. The view does not copy the features out of the byte array or
+ * buffer it was created from. When the view is created it only records where each feature starts in the buffer. A
+ * feature is decoded into a {@link Feature} object only when it is requested calling {@link #get(String)}.
+ * <p>
+ * This is useful when the application reads only a few features, typically the expiry date and some flags, from a
+ * license that may contain many features or large binary features. In this case using a view is cheaper than
+ * creating a {@link License} object calling {@link License.Create#from(byte[])}.
+ * <p>
+ * The signature of the license can also be checked calling {@link #isOK(PublicKey)} or
+ * {@link LicenseVerifier#verify(LicenseView)}. In this case the digest is calculated directly from the bytes of the
+ * buffer.
+ * <p>
+ * The view does not copy the buffer. The content of the buffer must not be modified while the view is used.
+ */
+public class LicenseView {
+    private final ByteBuffer buffer;
+    /**
+     * The offsets of the features in the buffer. Each offset points to the start of the serialized feature, right
+     * after the four bytes storing the length of the feature.
+     */
+    private final int[] offsets;
+    private final int[] lengths;
+    private final int signatureIndex;
+    /**
+     * {@code true} when the features in the buffer are in the same order as {@link License#serialized()} would
+     * write them. Only in this case the digest can be calculated directly from the bytes of the buffer.
+     */
+    private final boolean canonical;
+
+    private LicenseView(ByteBuffer buffer, int[] offsets, int[] lengths, int signatureIndex, boolean canonical) {
+        this.buffer = buffer;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.signatureIndex = signatureIndex;
+        this.canonical = canonical;
+    }
+
+    /**
+     * Get a feature of a given name from the license or {@code null} if there is no feature for the name in the
+     * license. The feature is decoded from the buffer every time this method is called.
+     *
+     * @param name the name of the feature we want to retrieve
+     * @return the feature object
+     */
+    public Feature get(String name) {
+        final var index = indexOf(name.getBytes(StandardCharsets.UTF_8));
+        if (index == -1) {
+            return null;
+        }
+        final var serialized = new byte[lengths[index]];
+        buffer.duplicate().position(offsets[index]).get(serialized);
+        return Feature.Create.from(serialized);
+    }
+
+    /**
+     * @param name the name of the feature
+     * @return {@code true} if the license contains a feature with the given name
+     */
+    public boolean contains(String name) {
+        return indexOf(name.getBytes(StandardCharsets.UTF_8)) != -1;
+    }
+
+    /**
+     * @return the number of features in the license
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * Checks the expiration date of the license the same way as {@link License#isExpired()} does.
+     *
+     * @return {@code true} if the license has expired.
+     */
+    public boolean isExpired() {
+        return isExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * Checks the expiration date of the license the same way as {@link License#isExpired(long)} does. The expiry
+     * date is read directly from the buffer.
+     *
+     * @param nowMillis the current time in milliseconds since the epoch
+     * @return {@code true} if the license has expired at the given time.
+     */
+    public boolean isExpired(long nowMillis) {
+        final var index = indexOf(Create.EXPIRATION_NAME);
+        if (index == -1) {
+            throw new NullPointerException("The license has no expiry date");
+        }
+        final var offset = offsets[index];
+        if (!Feature.isDateType(buffer.getInt(offset))) {
+            throw new IllegalArgumentException("Feature is not DATE");
+        }
+        return nowMillis > buffer.getLong(offset + lengths[index] - Long.BYTES);
+    }
+
+    /**
+     * @return the license identifier or {@code null} in case the license does not contain an ID. See
+     * {@link License#getLicenseId()}.
+     */
+    public UUID getLicenseId() {
+        try {
+            return get(License.LICENSE_ID).getUUID();
+        } catch (final Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the electronic signature attached to the license
+     */
+    public byte[] getSignature() {
+        return get(License.SIGNATURE_KEY).getBinary();
+    }
+
+    /**
+     * Returns true if the license is signed and the authenticity of the signature can be checked successfully
+     * using the key. Applications checking many licenses should use a {@link LicenseVerifier} instead.
+     *
+     * @param key encryption key to check the authenticity of the license signature
+     * @return {@code true} if the license was properly signed and is intact. In any other cases it returns
+     * {@code false}.
+     */
+    public boolean isOK(PublicKey key) {
+        return new LicenseVerifier(key).verify(this);
+    }
+
+    /**
+     * Create a {@link License} object containing all the features of the view.
+     *
+     * @return the new license object
+     */
+    public License toLicense() {
+        final var license = new License();
+        for (int i = 0; i < offsets.length; i++) {
+            final var serialized = new byte[lengths[i]];
+            buffer.duplicate().position(offsets[i]).get(serialized);
+            license.add(Feature.Create.from(serialized));
+        }
+        return license;
+    }
+
+    /**
+     * Feed the bytes of the license without the signature into the message digest. These are the same bytes that
+     * {@link License#unsigned()} returns for the same license.
+     *
+     * @param digester the message digest to update
+     */
+    void digestUnsigned(MessageDigest digester) {
+        if (!canonical) {
+            digester.update(toLicense().canonicalUnsigned());
+            return;
+        }
+        final var region = buffer.duplicate();
+        region.limit(Integer.BYTES);
+        digester.update(region);
+        for (int i = 0; i < offsets.length; i++) {
+            if (i != signatureIndex) {
+                region.limit(offsets[i] + lengths[i]).position(offsets[i] - Integer.BYTES);
+                digester.update(region);
+            }
+        }
+    }
+
+    /**
+     * Find the index of the feature that has the given name. If there are more than one features with the same
+     * name, which can only happen if the buffer was not created by License3j, then the last one is found, the same
+     * way as {@link License.Create#from(byte[])} keeps the last one.
+     *
+     * @param name the UTF-8 encoded name of the feature
+     * @return the index of the feature or -1 if there is no such feature
+     */
+    private int indexOf(byte[] name) {
+        for (int i = offsets.length - 1; i >= 0; i--) {
+            if (nameEquals(i, name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean nameEquals(int index, byte[] name) {
+        final var offset = offsets[index];
+        if (buffer.getInt(offset + Integer.BYTES) != name.length) {
+            return false;
+        }
+        final var start = offset + Feature.nameOffset(buffer.getInt(offset));
+        for (int j = 0; j < name.length; j++) {
+            if (buffer.get(start + j) != name[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Inner class containing factory methods to create a license view.
+     */
+    public static class Create {
+        private static final byte[] SIGNATURE_NAME = License.SIGNATURE_KEY.getBytes(StandardCharsets.UTF_8);
+        private static final byte[] EXPIRATION_NAME = License.EXPIRATION_DATE.getBytes(StandardCharsets.UTF_8);
+
+        /**
+         * Create a license view from the binary byte array representation. The array is not copied.
+         *
+         * @param array the binary byte array representation of the license
+         * @return the license view
+         */
+        public static LicenseView from(final byte[] array) {
+            return from(ByteBuffer.wrap(array));
+        }
+
+        /**
+         * Create a license view from the binary representation of the license between the position and the limit
+         * of the buffer. The buffer may be a heap, direct or memory mapped buffer. The content of the buffer is not
+         * copied and the position of the buffer is not changed.
+         *
+         * @param buffer the binary representation of the license
+         * @return the license view
+         */
+        public static LicenseView from(final ByteBuffer buffer) {
+            final var bb = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+            if (bb.remaining() < Integer.BYTES) {
+                throw new IllegalArgumentException("serialized license is too short");
+            }
+            if (bb.getInt() != License.MAGIC) {
+                throw new IllegalArgumentException("serialized license is corrupt");
+            }
+            var offsets = new int[16];
+            var lengths = new int[16];
+            var count = 0;
+            var signatureIndex = -1;
+            var canonical = true;
+            var previousNameStart = -1;
+            var previousNameLength = 0;
+            try {
+                while (bb.hasRemaining()) {
+                    final var length = bb.getInt();
+                    final var offset = bb.position();
+                    if (length < 2 * Integer.BYTES || length > bb.remaining()) {
+                        throw new IllegalArgumentException("serialized license is corrupt");
+                    }
+                    final var nameLength = bb.getInt(offset + Integer.BYTES);
+                    final var nameStart = offset + Feature.nameOffset(bb.getInt(offset));
+                    if (nameLength < 0 || nameStart + nameLength > offset + length) {
+                        throw new IllegalArgumentException("serialized license is corrupt");
+                    }
+                    if (count == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, 2 * count);
+                        lengths = Arrays.copyOf(lengths, 2 * count);
+                    }
+                    offsets[count] = offset;
+                    lengths[count] = length;
+                    if (previousNameStart != -1 &&
+                        compareNames(bb, previousNameStart, previousNameLength, nameStart, nameLength) >= 0) {
+                        canonical = false;
+                    }
+                    if (!sortsAsString(bb, nameStart, nameLength)) {
+                        canonical = false;
+                    }
+                    if (equalsName(bb, nameStart, nameLength, SIGNATURE_NAME)) {
+                        signatureIndex = count;
+                    }
+                    previousNameStart = nameStart;
+                    previousNameLength = nameLength;
+                    count++;
+                    bb.position(offset + length);
+                }
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException(e);
+            }
+            return new LicenseView(bb.asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN).position(0),
+                Arrays.copyOf(offsets, count), Arrays.copyOf(lengths, count),
+                signatureIndex, canonical);
+        }
+
+        /**
+         * Compare two names stored in the buffer as unsigned bytes.
+         */
+        private static int compareNames(ByteBuffer bb, int start1, int length1, int start2, int length2) {
+            final var n = Math.min(length1, length2);
+            for (int i = 0; i < n; i++) {
+                final var cmp = Integer.compare(bb.get(start1 + i) & 0xFF, bb.get(start2 + i) & 0xFF);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return Integer.compare(length1, length2);
+        }
+
+        /**
+         * The license sorts the features by the {@link String} names, which is UTF-16 order. The order of the UTF-8
+         * bytes is the same, except when a name contains a character above {@code U+E000}, which is encoded with a
+         * lead byte {@code 0xEE} or larger. Such names are rare and for those the view does not assume that the
+         * byte order tells the canonical order.
+         */
+        private static boolean sortsAsString(ByteBuffer bb, int start, int length) {
+            for (int i = 0; i < length; i++) {
+                if ((bb.get(start + i) & 0xFF) >= 0xEE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean equalsName(ByteBuffer bb, int start, int length, byte[] name) {
+            if (length != name.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (bb.get(start + i) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -3,9 +3,15 @@ package javax0.license3j;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Extended license works with a license object and provides features that are not core license functionalities.
@@ -15,13 +21,73 @@ import java.util.Optional;
 public class RevocableLicense {
 
     final private static String REVOCATION_URL = "revocationUrl";
+    final private static Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
     HttpHandler httpHandler = new HttpHandler();
     private final License license;
+    private RevocationCache cache;
+    private RevocationList revocationList;
+    private HttpClient httpClient;
+    private Duration requestTimeout = DEFAULT_TIMEOUT;
 
     public RevocableLicense(License license) {
         this.license = license;
     }
 
+    /**
+     * Use the cache to get the revocation state of the license. When the cache already contains the state for the
+     * revocation URL then {@link #isRevoked(boolean)} does not connect to the revocation service. See
+     * {@link RevocationCache} for the details.
+     *
+     * @param cache the cache to use, can be shared between licenses
+     * @return this object so method calls can be chained
+     */
+    public RevocableLicense cached(RevocationCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * Use the revocation list to decide if the license is revoked. When a revocation list is set then
+     * {@link #isRevoked(boolean)} and {@link #isRevokedAsync(boolean)} look up the license in the list and they do
+     * not connect to the revocation service. Until the first revocation list is loaded into the list the default
+     * revocation state is returned, the same way as when the revocation service is not reachable. See
+     * {@link RevocationList} for the details.
+     *
+     * @param revocationList the revocation list to use, can be shared between licenses
+     * @return this object so method calls can be chained
+     */
+    public RevocableLicense revocationList(RevocationList revocationList) {
+        this.revocationList = revocationList;
+        return this;
+    }
+
+    /**
+     * Set the HTTP client used by {@link #isRevokedAsync(boolean)}. If this method is not called then a client
+     * shared by all the revocable licenses is used. The shared client has a connection timeout of ten seconds, and
+     * it keeps the connections open for reuse. Use this method to configure the client differently, for example to
+     * run the response handling on a specific executor.
+     *
+     * @param httpClient the client to use for the asynchronous revocation check
+     * @return this object so method calls can be chained
+     */
+    public RevocableLicense httpClient(HttpClient httpClient) {
+        this.httpClient = httpClient;
+        return this;
+    }
+
+    /**
+     * Set the time to wait for the revocation service. In {@link #isRevokedAsync(boolean)} it limits the time to wait
+     * for the response. In {@link #isRevoked(boolean)} it is the connect timeout and the read timeout of the
+     * connection. The default is ten seconds.
+     *
+     * @param requestTimeout the maximum time to wait for the response
+     * @return this object so method calls can be chained
+     */
+    public RevocableLicense requestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+        return this;
+    }
+
     /**
      * Get the revocation URL of the license. This feature is stored in the
      * license under the name {@code revocationUrl}. This URL may contain the
@@ -109,6 +175,11 @@ public class RevocableLicense {
      * <p>
      * The difference is whether to treat the license revoked when the
      * revocation service is not reachable.
+     * <p>
+     * If a {@link RevocationCache} is attached to the license then the revocation state is taken from the cache.
+     * If a {@link RevocationList} is attached to the license then the revocation state is taken from the list and
+     * the revocation URL is not used. When no revocation list was loaded into the list yet then the default
+     * revocation state is returned.
      *
      * @param defaultRevocationState should be {@code true} to treat the license revoked when the
      *                               revocation service is not reachable. Setting this argument
@@ -119,26 +190,124 @@ public class RevocableLicense {
      * license is not revoked.
      */
     public boolean isRevoked(final boolean defaultRevocationState) {
+        if (revocationList != null) {
+            return revocationList.sequence() == -1 ? defaultRevocationState : revocationList.isRevoked(license);
+        }
         var revoked = true;
         try {
             final var url = getRevocationURL();
             if (url == null) {
                 return false;
             }
-            final var con = httpHandler.open(url);
-            con.setUseCaches(false);
-            if (con instanceof HttpURLConnection) {
-                final var hCon = (HttpURLConnection) con;
-                hCon.connect();
-                return httpHandler.responseCode(hCon) != HttpURLConnection.HTTP_OK;
+            if (cache != null) {
+                final var cached = cache.revoked(url, this::download);
+                return cached == null ? defaultRevocationState : cached;
             }
-            return false;
+            return download(url);
         } catch (final IOException exception) {
             revoked = defaultRevocationState;
         }
         return revoked;
     }
 
+    /**
+     * Check if the license was revoked or not without blocking the calling thread. Calling this method is
+     * equivalent to calling {@code isRevokedAsync(false)}.
+     *
+     * @return the future of the revocation state
+     */
+    public CompletableFuture<Boolean> isRevokedAsync() {
+        return isRevokedAsync(false);
+    }
+
+    /**
+     * Check if the license is revoked or not without blocking the calling thread. The revocation state is decided
+     * the same way as in case of {@link #isRevoked(boolean)}, but the revocation service is called using the
+     * asynchronous API of a {@link HttpClient}. The client multiplexes the requests over a few pooled connections,
+     * thus many licenses can be checked concurrently. The request times out after the time set calling
+     * {@link #requestTimeout(Duration)}, which is then handled the same way as an unreachable revocation service.
+     * <p>
+     * If a {@link RevocationCache} is attached to the license then the revocation state is taken from the cache and
+     * the returned future is already completed, unless this is the first lookup of the revocation URL.
+     *
+     * @param defaultRevocationState the revocation state to use if the revocation service is not reachable, see
+     *                               {@link #isRevoked(boolean)}
+     * @return the future of the revocation state. The future never completes exceptionally.
+     */
+    public CompletableFuture<Boolean> isRevokedAsync(final boolean defaultRevocationState) {
+        if (revocationList != null) {
+            return CompletableFuture.completedFuture(
+                revocationList.sequence() == -1 ? defaultRevocationState : revocationList.isRevoked(license));
+        }
+        final URL url;
+        try {
+            url = getRevocationURL();
+        } catch (MalformedURLException e) {
+            return CompletableFuture.completedFuture(defaultRevocationState);
+        }
+        if (url == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (cache != null) {
+            return cache.revokedAsync(url, this::downloadAsync)
+                .thenApply(revoked -> revoked == null ? defaultRevocationState : revoked);
+        }
+        return downloadAsync(url).handle((revoked, e) -> e == null ? revoked : defaultRevocationState);
+    }
+
+    /**
+     * Call the revocation service asynchronously. The same as {@link #download(URL)}, the license is not revoked
+     * when the revocation URL is not an HTTP URL.
+     *
+     * @param url the revocation URL
+     * @return the future of the revocation state
+     */
+    private CompletableFuture<Boolean> downloadAsync(URL url) {
+        if (!"http".equalsIgnoreCase(url.getProtocol()) && !"https".equalsIgnoreCase(url.getProtocol())) {
+            return CompletableFuture.completedFuture(false);
+        }
+        final HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(url.toURI()).timeout(requestTimeout).GET().build();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        final var client = httpClient == null ? SharedHttpClient.CLIENT : httpClient;
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .thenApply(response -> response.statusCode() != HttpURLConnection.HTTP_OK);
+    }
+
+    /**
+     * Holder of the HTTP client shared by the revocable licenses. The client is created when it is first used.
+     */
+    private static class SharedHttpClient {
+        private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(DEFAULT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+
+    /**
+     * Connect to the revocation URL and get the revocation state.
+     *
+     * @param url the revocation URL
+     * @return {@code true} if the license is revoked
+     * @throws IOException if the revocation service cannot be reached
+     */
+    private boolean download(URL url) throws IOException {
+        final var con = httpHandler.open(url);
+        con.setUseCaches(false);
+        final var timeout = (int) Math.min(Integer.MAX_VALUE, Math.max(1, requestTimeout.toMillis()));
+        con.setConnectTimeout(timeout);
+        con.setReadTimeout(timeout);
+        if (con instanceof HttpURLConnection) {
+            final var hCon = (HttpURLConnection) con;
+            hCon.connect();
+            return httpHandler.responseCode(hCon) != HttpURLConnection.HTTP_OK;
+        }
+        return false;
+    }
+
     /**
      * A simple wrapper class to make it possible to mock the network use when revocation
      * is tested. In tests a mock class extending this is injected.
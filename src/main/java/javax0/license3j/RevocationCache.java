@@ -0,0 +1,389 @@
+package javax0.license3j;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A cache of the revocation states downloaded by {@link RevocableLicense}. Attach the cache to a revocable license
+ * calling {@link RevocableLicense#cached(RevocationCache)}. The same cache can be attached to many licenses.
+ * <p>
+ * The key of the cache is the revocation URL of the license, after the <code>${licenseId}</code> place holder was
+ * replaced. The first lookup of a URL downloads the revocation state on the calling thread. When several threads look
+ * up the same new URL at the same time then only one of them downloads the state, the others wait for it. After
+ * that the cached
+ * state is returned. When the cached state is older than its time to live then it is still returned, but the state
+ * is downloaded again in the background using the executor of the cache. That way a thread checking the revocation
+ * never waits for the revocation service after the first lookup of the URL.
+ * <p>
+ * There are two different times to live. The state received from the revocation service, revoked or not revoked, is
+ * kept for the time to live. When the revocation service could not be reached then this is also stored in the cache,
+ * but only for the negative time to live, which is usually shorter. In this case the license is treated as revoked
+ * or not revoked depending on the argument of {@link RevocableLicense#isRevoked(boolean)}.
+ * <p>
+ * The default executor has a few daemon threads and a bounded queue. When the queue is full then the refresh is
+ * not started and the expired state is refreshed at a later lookup.
+ * <p>
+ * The number of URLs in the cache is limited. When the cache is full and a new URL is looked up then the entries
+ * older than their time to live are removed, and if that is not enough then the entries loaded the longest time ago,
+ * until about one sixteenth of the cache is free. Finding these entries needs a scan of the cache, but the scan
+ * makes room for many new entries.
+ * <p>
+ * The cache is thread safe.
+ */
+public class RevocationCache {
+    private static final int DEFAULT_MAX_SIZE = 10_000;
+    private static final Executor DEFAULT_EXECUTOR = defaultExecutor();
+
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final int maxSize;
+    private final Executor executor;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a new cache that refreshes the expired states on daemon threads shared by the caches. The cache holds
+     * at most 10000 URLs.
+     *
+     * @param ttl         the time the state received from the revocation service is fresh
+     * @param negativeTtl the time the information that the revocation service was not reachable is fresh
+     */
+    public RevocationCache(Duration ttl, Duration negativeTtl) {
+        this(ttl, negativeTtl, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Create a new cache that holds at most 10000 URLs.
+     *
+     * @param ttl         the time the state received from the revocation service is fresh
+     * @param negativeTtl the time the information that the revocation service was not reachable is fresh
+     * @param executor    the executor to run the background refresh of the expired states
+     */
+    public RevocationCache(Duration ttl, Duration negativeTtl, Executor executor) {
+        this(ttl, negativeTtl, executor, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Create a new cache.
+     *
+     * @param ttl         the time the state received from the revocation service is fresh
+     * @param negativeTtl the time the information that the revocation service was not reachable is fresh
+     * @param executor    the executor to run the background refresh of the expired states
+     * @param maxSize     the maximum number of URLs in the cache
+     */
+    public RevocationCache(Duration ttl, Duration negativeTtl, Executor executor, int maxSize) {
+        this(ttl, negativeTtl, executor, maxSize, System::nanoTime);
+    }
+
+    RevocationCache(Duration ttl, Duration negativeTtl, Executor executor, int maxSize, LongSupplier nanoClock) {
+        if (ttl.isNegative() || negativeTtl.isNegative()) {
+            throw new IllegalArgumentException("Time to live cannot be negative.");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size has to be positive.");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.maxSize = maxSize;
+        this.executor = executor;
+        this.nanoClock = nanoClock;
+    }
+
+    private static Executor defaultExecutor() {
+        final var executor = new ThreadPoolExecutor(4, 4, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1000), r -> {
+            final var thread = new Thread(r, "license3j-revocation-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * The function that downloads the revocation state.
+     */
+    @FunctionalInterface
+    interface Loader {
+        /**
+         * @param url the revocation URL
+         * @return {@code true} if the license is revoked
+         * @throws IOException if the revocation service cannot be reached
+         */
+        boolean revoked(URL url) throws IOException;
+    }
+
+    /**
+     * Get the revocation state of the URL.
+     *
+     * @param url    the revocation URL
+     * @param loader downloads the state when it is not in the cache or when it has expired
+     * @return {@link Boolean#TRUE} if the license is revoked, {@link Boolean#FALSE} if it is not revoked and
+     * {@code null} if the revocation service was not reachable
+     */
+    Boolean revoked(URL url, Loader loader) {
+        final var key = url.toString();
+        final var entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            final var mine = new CompletableFuture<Entry>();
+            final var other = loading.putIfAbsent(key, mine);
+            if (other != null) {
+                return other.join().revoked;
+            }
+            try {
+                final var loaded = loadIfAbsent(key, url, loader);
+                mine.complete(loaded);
+                return loaded.revoked;
+            } finally {
+                loading.remove(key, mine);
+                mine.complete(new Entry(null, nanoClock.getAsLong()));
+            }
+        }
+        hits.increment();
+        if (startRefresh(entry)) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        entries.replace(key, entry, load(url, loader));
+                    } finally {
+                        entry.refreshing.set(false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                entry.refreshing.set(false);
+            }
+        }
+        return entry.revoked;
+    }
+
+    /**
+     * Get the revocation state of the URL using an asynchronous loader. The cache works the same way as in case of
+     * {@link #revoked(URL, Loader)}, but the state is never downloaded on the calling thread. When the URL is not in
+     * the cache then the returned future completes when the state is downloaded. Otherwise the returned future is
+     * already completed and an expired state is refreshed by the asynchronous loader, without the executor of the
+     * cache.
+     *
+     * @param url    the revocation URL
+     * @param loader starts the download of the state. The future it returns completes with {@code true} if the
+     *               license is revoked, and completes exceptionally if the revocation service cannot be reached.
+     * @return the future of the state, see {@link #revoked(URL, Loader)} for the values
+     */
+    CompletableFuture<Boolean> revokedAsync(URL url, Function<URL, CompletableFuture<Boolean>> loader) {
+        final var key = url.toString();
+        final var entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            final var mine = new CompletableFuture<Entry>();
+            final var other = loading.putIfAbsent(key, mine);
+            if (other != null) {
+                return other.thenApply(loaded -> loaded.revoked);
+            }
+            final var present = entries.get(key);
+            if (present != null) {
+                loading.remove(key, mine);
+                mine.complete(present);
+                return CompletableFuture.completedFuture(present.revoked);
+            }
+            loadAsync(url, loader).whenComplete((loaded, e) -> {
+                insert(key, loaded);
+                loading.remove(key, mine);
+                mine.complete(loaded);
+            });
+            return mine.thenApply(loaded -> loaded.revoked);
+        }
+        hits.increment();
+        if (startRefresh(entry)) {
+            loadAsync(url, loader).whenComplete((loaded, e) -> {
+                if (loaded != null) {
+                    entries.replace(key, entry, loaded);
+                }
+                entry.refreshing.set(false);
+            });
+        }
+        return CompletableFuture.completedFuture(entry.revoked);
+    }
+
+    /**
+     * @return {@code true} if the entry has expired and the caller has to start the refresh. Only one refresh is
+     * started for an entry.
+     */
+    private boolean startRefresh(Entry entry) {
+        if (nanoClock.getAsLong() - entry.loadedAt > (entry.revoked == null ? negativeTtlNanos : ttlNanos)
+            && entry.refreshing.compareAndSet(false, true)) {
+            refreshes.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private CompletableFuture<Entry> loadAsync(URL url, Function<URL, CompletableFuture<Boolean>> loader) {
+        CompletableFuture<Boolean> loading;
+        try {
+            loading = loader.apply(url);
+        } catch (RuntimeException e) {
+            loading = CompletableFuture.failedFuture(e);
+        }
+        return loading.handle((revoked, e) -> new Entry(e == null ? revoked : null, nanoClock.getAsLong()));
+    }
+
+    /**
+     * Load the state. Any exception of the loader is treated as an unreachable revocation service, so that a failing
+     * loader cannot leave an entry without the possibility of a later refresh.
+     */
+    private Entry load(URL url, Loader loader) {
+        Boolean revoked;
+        try {
+            revoked = loader.revoked(url);
+        } catch (IOException | RuntimeException e) {
+            revoked = null;
+        }
+        return new Entry(revoked, nanoClock.getAsLong());
+    }
+
+    /**
+     * Load the state on the calling thread, unless another thread has put it into the cache since the caller looked
+     * it up. The caller is the only thread loading the URL.
+     */
+    private Entry loadIfAbsent(String key, URL url, Loader loader) {
+        final var present = entries.get(key);
+        if (present != null) {
+            return present;
+        }
+        final var loaded = load(url, loader);
+        insert(key, loaded);
+        return loaded;
+    }
+
+    /**
+     * Put a new entry into the cache, making room for it if the cache is full.
+     */
+    private void insert(String key, Entry loaded) {
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            evict();
+        }
+        entries.put(key, loaded);
+    }
+
+    /**
+     * Remove the expired entries, and when it is not enough then the entries loaded the longest time ago, so that
+     * about one sixteenth of the cache becomes free. Only one thread evicts at a time, the other threads do not wait
+     * for it.
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final var now = nanoClock.getAsLong();
+            final var live = new ArrayList<Map.Entry<String, Entry>>(entries.size());
+            for (final var e : entries.entrySet()) {
+                final var entry = e.getValue();
+                if (now - entry.loadedAt > (entry.revoked == null ? negativeTtlNanos : ttlNanos)) {
+                    remove(e);
+                } else {
+                    live.add(e);
+                }
+            }
+            final var count = live.size() - (maxSize - 1 - maxSize / 16);
+            if (count > 0) {
+                final var age = new long[live.size()];
+                for (int i = 0; i < age.length; i++) {
+                    age[i] = now - live.get(i).getValue().loadedAt;
+                }
+                final var sorted = age.clone();
+                Arrays.sort(sorted);
+                final var limit = sorted[sorted.length - count];
+                var removed = 0;
+                for (int i = 0; i < age.length && removed < count; i++) {
+                    if (age[i] >= limit) {
+                        remove(live.get(i));
+                        removed++;
+                    }
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private void remove(Map.Entry<String, Entry> e) {
+        if (entries.remove(e.getKey(), e.getValue())) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * @return the number of lookups served from the cache, including the ones that returned an expired state and
+     * started a refresh
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that did not find the URL in the cache and had to wait for the download of the
+     * state
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of background refreshes started
+     */
+    public long refreshes() {
+        return refreshes.sum();
+    }
+
+    /**
+     * @return the number of entries removed because the cache was full
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of URLs in the cache
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove all the entries from the cache.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private static class Entry {
+        private final Boolean revoked;
+        private final long loadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(Boolean revoked, long loadedAt) {
+            this.revoked = revoked;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
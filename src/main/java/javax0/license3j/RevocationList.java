@@ -0,0 +1,320 @@
+package javax0.license3j;
+
+import javax0.license3j.io.LicenseReader;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * A list of revoked license identifiers. Instead of asking a revocation service for each license (see
+ * {@link RevocableLicense#isRevoked(boolean)}) the application downloads the list of all the revoked licenses and
+ * checks the licenses locally.
+ * <p>
+ * The revocation list is distributed as a signed license. The license contains the identifiers of the revoked
+ * licenses in a binary feature. The licenses creating the lists are created by {@link Create#full(long, Collection)}
+ * and {@link Create#delta(long, long, Collection, Collection)}, and they have to be signed with the same private key
+ * as the licenses. A full list contains all the revoked licenses. A delta list contains the licenses revoked and
+ * reinstated since a previous list. Each list has a sequence number, and a delta list can only be applied to the
+ * list with the sequence number the delta was created from. The sequence numbers have to grow: a full list is
+ * accepted only when its sequence number is larger than the sequence number of the actual content, and a delta list
+ * only when its sequence number is larger than the sequence number it was created from. This way an old, replayed
+ * list cannot roll back the revocations.
+ * <p>
+ * The identifiers are stored in memory in a sorted array. Checking an identifier first consults a Bloom filter,
+ * thus for most of the licenses, which are not revoked, the check does not even need the binary search. Checking a
+ * license does not allocate any object.
+ * <p>
+ * The revocation list is thread safe. Updating the list replaces the content atomically, the checks running
+ * concurrently see either the old or the new content.
+ */
+public class RevocationList {
+    static final String TYPE = "revocationListType";
+    static final String SEQUENCE = "revocationListSequence";
+    static final String BASE = "revocationListBase";
+    static final String REVOKED = "revokedIds";
+    static final String REINSTATED = "reinstatedIds";
+    static final String FULL = "FULL";
+    static final String DELTA = "DELTA";
+
+    private static final int HASHES = 7;
+    private static final int BITS_PER_ID = 10;
+
+    private final LicenseVerifier verifier;
+    private volatile Snapshot snapshot = new Snapshot(-1, new long[0]);
+
+    /**
+     * Create a new, empty revocation list.
+     *
+     * @param verifier the verifier used to check the signature of the revocation lists when the list is updated.
+     *                 It has to use the public key of the licenses.
+     */
+    public RevocationList(LicenseVerifier verifier) {
+        this.verifier = verifier;
+    }
+
+    /**
+     * Update the revocation list. A full list replaces the content, a delta list is applied to the content.
+     *
+     * @param list the signed license containing the revocation list
+     * @throws IllegalArgumentException if the signature of the list is not valid, the license is not a revocation
+     *                                  list, it is a full list that is not newer than the actual content, or it is a
+     *                                  delta list that was not created from the actual sequence number of this list
+     */
+    public synchronized void update(License list) {
+        if (!verifier.verify(list)) {
+            throw new IllegalArgumentException("Revocation list signature is not valid.");
+        }
+        final var type = list.get(TYPE);
+        final var sequence = list.get(SEQUENCE);
+        if (type == null || sequence == null) {
+            throw new IllegalArgumentException("License is not a revocation list.");
+        }
+        if (sequence.getLong() < 0) {
+            throw new IllegalArgumentException("Revocation list sequence cannot be negative.");
+        }
+        final var revoked = uuids(list.get(REVOKED));
+        final var current = snapshot;
+        switch (type.getString()) {
+            case FULL:
+                if (sequence.getLong() <= current.sequence) {
+                    throw new IllegalArgumentException("Full revocation list sequence " + sequence.getLong()
+                        + " is not newer than the current sequence " + current.sequence);
+                }
+                snapshot = new Snapshot(sequence.getLong(), sorted(revoked, new TreeSet<>()));
+                return;
+            case DELTA:
+                final var base = list.get(BASE);
+                if (base == null || base.getLong() != current.sequence) {
+                    throw new IllegalArgumentException("Delta revocation list was created from the sequence "
+                        + (base == null ? null : base.getLong()) + " but the current sequence is " + current.sequence);
+                }
+                if (sequence.getLong() <= base.getLong()) {
+                    throw new IllegalArgumentException("Delta revocation list sequence " + sequence.getLong()
+                        + " is not newer than its base sequence " + base.getLong());
+                }
+                final var ids = new TreeSet<>(current.uuids());
+                ids.removeAll(uuids(list.get(REINSTATED)));
+                snapshot = new Snapshot(sequence.getLong(), sorted(revoked, ids));
+                return;
+        }
+        throw new IllegalArgumentException("Revocation list type " + type.getString() + " is unknown.");
+    }
+
+    /**
+     * Download the signed revocation list in binary format from the URL and update the list. See
+     * {@link #update(License)}.
+     *
+     * @param url where the revocation list is downloaded from
+     * @throws IOException if the list cannot be downloaded
+     */
+    public void update(URL url) throws IOException {
+        try (final var reader = new LicenseReader(url.openStream())) {
+            update(reader.read());
+        }
+    }
+
+    /**
+     * @return the sequence number of the last applied list or -1 if no list was applied yet
+     */
+    public long sequence() {
+        return snapshot.sequence;
+    }
+
+    /**
+     * @return the number of revoked license identifiers in the list
+     */
+    public int size() {
+        return snapshot.ids.length / 2;
+    }
+
+    /**
+     * @param licenseId the license identifier
+     * @return {@code true} if the license identifier is in the list
+     */
+    public boolean isRevoked(UUID licenseId) {
+        return isRevoked(licenseId.getMostSignificantBits(), licenseId.getLeastSignificantBits());
+    }
+
+    /**
+     * @param mostSignificantBits  the most significant bits of the license identifier
+     * @param leastSignificantBits the least significant bits of the license identifier
+     * @return {@code true} if the license identifier is in the list
+     */
+    public boolean isRevoked(long mostSignificantBits, long leastSignificantBits) {
+        return snapshot.contains(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Check the license. The identifier of the license is used, or the fingerprint when the license has no
+     * identifier, the same way as {@link RevocableLicense#getRevocationURL()} does. A license that has no identifier
+     * and the fingerprint of which cannot be calculated cannot be listed, it is not revoked.
+     *
+     * @param license the license to check
+     * @return {@code true} if the license is revoked
+     */
+    public boolean isRevoked(License license) {
+        final var id = license.get(License.LICENSE_ID);
+        if (id == null || !id.isUUID()) {
+            final var fingerprint = license.fingerprint();
+            return fingerprint != null && isRevoked(fingerprint);
+        }
+        return isRevoked(id.uuidMostSignificantBits(), id.uuidLeastSignificantBits());
+    }
+
+    private static Collection<UUID> uuids(Feature feature) {
+        final var result = new TreeSet<UUID>();
+        if (feature != null) {
+            final var buffer = ByteBuffer.wrap(feature.getBinary());
+            if (buffer.remaining() % (2 * Long.BYTES) != 0) {
+                throw new IllegalArgumentException("Revocation list is corrupt.");
+            }
+            while (buffer.hasRemaining()) {
+                result.add(new UUID(buffer.getLong(), buffer.getLong()));
+            }
+        }
+        return result;
+    }
+
+    private static long[] sorted(Collection<UUID> added, TreeSet<UUID> ids) {
+        ids.addAll(added);
+        final var result = new long[2 * ids.size()];
+        var i = 0;
+        for (final var id : ids) {
+            result[i++] = id.getMostSignificantBits();
+            result[i++] = id.getLeastSignificantBits();
+        }
+        return result;
+    }
+
+    private static byte[] bytes(Collection<UUID> ids) {
+        final var buffer = ByteBuffer.allocate(2 * Long.BYTES * ids.size());
+        for (final var id : new TreeSet<>(ids)) {
+            buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * The content of the list. It is immutable and replaced as a whole when the list is updated.
+     */
+    private static class Snapshot {
+        private final long sequence;
+        /**
+         * The sorted identifiers, the most and the least significant bits of each identifier after each other.
+         */
+        private final long[] ids;
+        private final long[] bloom;
+        private final int mask;
+
+        private Snapshot(long sequence, long[] ids) {
+            this.sequence = sequence;
+            this.ids = ids;
+            final var bits = Integer.highestOneBit(Math.max(Long.SIZE, ids.length / 2 * BITS_PER_ID - 1) << 1);
+            this.bloom = new long[bits / Long.SIZE];
+            this.mask = bits - 1;
+            for (int i = 0; i < ids.length; i += 2) {
+                final var h1 = hash(ids[i] ^ Long.rotateLeft(ids[i + 1], 32));
+                final var h2 = hash(ids[i + 1]) | 1;
+                for (int k = 0; k < HASHES; k++) {
+                    final var bit = (int) (h1 + k * h2) & mask;
+                    bloom[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+
+        private boolean contains(long msb, long lsb) {
+            final var h1 = hash(msb ^ Long.rotateLeft(lsb, 32));
+            final var h2 = hash(lsb) | 1;
+            for (int k = 0; k < HASHES; k++) {
+                final var bit = (int) (h1 + k * h2) & mask;
+                if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            var low = 0;
+            var high = ids.length / 2 - 1;
+            while (low <= high) {
+                final var mid = (low + high) >>> 1;
+                var cmp = Long.compare(ids[2 * mid], msb);
+                if (cmp == 0) {
+                    cmp = Long.compare(ids[2 * mid + 1], lsb);
+                }
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Collection<UUID> uuids() {
+            final var result = new TreeSet<UUID>();
+            for (int i = 0; i < ids.length; i += 2) {
+                result.add(new UUID(ids[i], ids[i + 1]));
+            }
+            return result;
+        }
+
+        /**
+         * The finalizer of the 64-bit MurmurHash3, spreading the bits of the identifier.
+         */
+        private static long hash(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+
+    /**
+     * Factory methods to create the licenses that carry the revocation lists. The created licenses have to be
+     * signed before they are distributed.
+     */
+    public static class Create {
+        private Create() {
+        }
+
+        /**
+         * Create a full revocation list.
+         *
+         * @param sequence the sequence number of the list. The delta lists created later refer to this number.
+         * @param revoked  the identifiers of all the revoked licenses
+         * @return the license containing the list, not signed yet
+         */
+        public static License full(long sequence, Collection<UUID> revoked) {
+            final var license = new License();
+            license.add(Feature.Create.stringFeature(TYPE, FULL));
+            license.add(Feature.Create.longFeature(SEQUENCE, sequence));
+            license.add(Feature.Create.binaryFeature(REVOKED, bytes(revoked)));
+            return license;
+        }
+
+        /**
+         * Create a delta revocation list.
+         *
+         * @param base       the sequence number of the list this delta is applied to
+         * @param sequence   the sequence number of the list after the delta was applied
+         * @param revoked    the identifiers of the licenses revoked since the base list
+         * @param reinstated the identifiers of the licenses that are not revoked any more since the base list
+         * @return the license containing the list, not signed yet
+         */
+        public static License delta(long base, long sequence, Collection<UUID> revoked, Collection<UUID> reinstated) {
+            final var license = new License();
+            license.add(Feature.Create.stringFeature(TYPE, DELTA));
+            license.add(Feature.Create.longFeature(BASE, base));
+            license.add(Feature.Create.longFeature(SEQUENCE, sequence));
+            license.add(Feature.Create.binaryFeature(REVOKED, bytes(revoked)));
+            license.add(Feature.Create.binaryFeature(REINSTATED, bytes(reinstated)));
+            return license;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package javax0.license3j;
+
+import java.security.Key;
+
+/**
+ * Select how the digest of a license is signed with a key.
+ * <p>
+ * RSA keys encrypt the digest of the license using a {@link javax.crypto.Cipher}, and the signature is checked by
+ * decrypting it and comparing the result with the digest. Elliptic curve keys cannot encrypt, they sign the digest
+ * using a {@link java.security.Signature}. These are the {@code EC} keys, which use ECDSA, and the {@code EdDSA} keys
+ * created for the {@code Ed25519} or {@code Ed448} algorithms. The signatures of these keys are much faster to create
+ * and much shorter than the RSA signatures.
+ * <p>
+ * This class is used by {@link License}, {@link LicenseSigner} and {@link LicenseVerifier}. It is not part of the API
+ * of the library.
+ */
+final class SignatureAlgorithm {
+    private SignatureAlgorithm() {
+    }
+
+    /**
+     * @param key the private or public key
+     * @return the name of the {@link java.security.Signature} algorithm to use with the key, or {@code null} if the
+     * digest is encrypted with a {@link javax.crypto.Cipher}
+     */
+    static String of(Key key) {
+        switch (key.getAlgorithm()) {
+            case "EC":
+                return "SHA256withECDSA";
+            case "EdDSA":
+            case "Ed25519":
+            case "Ed448":
+                return "EdDSA";
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package javax0.license3j;
+
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded cache of the licenses that were successfully verified by a {@link LicenseVerifier}. Attach the cache to
+ * a verifier calling {@link LicenseVerifier#cached(VerificationCache)}.
+ * <p>
+ * The key of the cache is the signature of the license together with the SHA-256 digest of the unsigned binary
+ * representation of the license. The digest is calculated once for each license object and it is remembered by the
+ * license, therefore a lookup does not process the whole license again. A cache hit requires that the signature and
+ * the digest are exactly the same as the ones that were verified. A cheap hash would not be enough: somebody could
+ * alter a license so that the hash of the altered content collides with the hash of the original one and the cache
+ * would report the altered license as verified.
+ * <p>
+ * The cache is bound to the public key of the first verifier it is attached to. The key is not part of the cache
+ * entries, therefore a verifier using a different key cannot use the same cache: it would accept the licenses
+ * verified with the other key without checking their signature. {@link LicenseVerifier#cached(VerificationCache)}
+ * throws an exception in that case.
+ * <p>
+ * Only successful verifications are cached. A license that fails the verification is checked again, using the
+ * cryptographic algorithms, every time it is presented.
+ * <p>
+ * The eviction is approximately least recently used. Each entry remembers the time it was last used. When the cache
+ * grows over its maximum size then one thread removes the least recently used entries in a batch, leaving some room
+ * for the next insertions, so the cost of the eviction is shared by many insertions. An entry is also evicted when it
+ * is older than the time to live specified when the cache was created. The cache counts the hits, misses and
+ * evictions, and they can be queried any time.
+ * <p>
+ * The cache is thread safe. The lookups do not lock, many threads can verify licenses concurrently.
+ */
+public class VerificationCache {
+    private final int maxSize;
+    private final int batchSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<PublicKey> key = new AtomicReference<>();
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a new cache.
+     *
+     * @param maxSize the maximum number of licenses stored in the cache
+     * @param ttl     the time a verification result is valid in the cache
+     */
+    public VerificationCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    VerificationCache(int maxSize, Duration ttl, LongSupplier nanoClock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size has to be positive.");
+        }
+        this.maxSize = maxSize;
+        this.batchSize = 1 + maxSize / 16;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Bind the cache to the public key. The first call binds the cache, the later calls check that the key is the
+     * same.
+     *
+     * @param key the public key of the verifier the cache is attached to
+     * @throws IllegalArgumentException if the cache is already bound to a different key
+     */
+    void bind(PublicKey key) {
+        if (!this.key.compareAndSet(null, key) && !this.key.get().equals(key)) {
+            throw new IllegalArgumentException("The verification cache is already used with a different public key.");
+        }
+    }
+
+    /**
+     * Check if the license with the signature and the digest was already verified.
+     *
+     * @param signature the signature of the license
+     * @param digest    the SHA-256 digest of the unsigned binary representation of the license
+     * @return {@code true} if the license was verified and the result is still in the cache
+     */
+    boolean contains(byte[] signature, byte[] digest) {
+        final var key = new Key(signature, digest);
+        final var entry = entries.get(key);
+        if (entry != null) {
+            final var now = nanoClock.getAsLong();
+            if (now - entry.verifiedAt <= ttlNanos) {
+                entry.lastUsed = now;
+                hits.increment();
+                return true;
+            }
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Record that the license with the signature and the digest was successfully verified. The arrays are copied,
+     * so the caller may modify them later without affecting the cache.
+     *
+     * @param signature the signature of the license
+     * @param digest    the SHA-256 digest of the unsigned binary representation of the license
+     */
+    void put(byte[] signature, byte[] digest) {
+        entries.put(new Key(signature.clone(), digest.clone()), new Entry(nanoClock.getAsLong()));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Remove the expired entries and the least recently used entries, so that the cache has room for new entries.
+     * Only one thread evicts at a time, the other threads do not wait for it.
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final var now = nanoClock.getAsLong();
+            final var live = new ArrayList<Map.Entry<Key, Entry>>(entries.size());
+            for (final var e : entries.entrySet()) {
+                if (now - e.getValue().verifiedAt > ttlNanos) {
+                    remove(e);
+                } else {
+                    live.add(e);
+                }
+            }
+            final var excess = live.size() - maxSize;
+            if (excess > 0) {
+                final var count = Math.min(live.size(), excess + batchSize - 1);
+                final var age = new long[live.size()];
+                for (int i = 0; i < age.length; i++) {
+                    age[i] = now - live.get(i).getValue().lastUsed;
+                }
+                final var sorted = age.clone();
+                Arrays.sort(sorted);
+                final var limit = sorted[sorted.length - count];
+                var removed = 0;
+                for (int i = 0; i < age.length && removed < count; i++) {
+                    if (age[i] >= limit) {
+                        remove(live.get(i));
+                        removed++;
+                    }
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private void remove(Map.Entry<Key, Entry> e) {
+        if (entries.remove(e.getKey(), e.getValue())) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * @return the number of lookups that found a verified license in the cache
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that did not find the license in the cache
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of licenses removed from the cache because the cache was full or because the entry has
+     * expired
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of licenses currently in the cache
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove all the entries from the cache. The counters are not reset.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private static class Entry {
+        private final long verifiedAt;
+        private volatile long lastUsed;
+
+        private Entry(long verifiedAt) {
+            this.verifiedAt = verifiedAt;
+            this.lastUsed = verifiedAt;
+        }
+    }
+
+    private static class Key {
+        private final byte[] signature;
+        private final byte[] digest;
+        private final int hash;
+
+        /**
+         * The digest is the output of a cryptographic hash function, its leading bytes are already uniformly
+         * distributed. The hash code is taken from them and the rest of the arrays is only compared when the hash
+         * codes are the same.
+         */
+        private Key(byte[] signature, byte[] digest) {
+            this.signature = signature;
+            this.digest = digest;
+            var hash = 0;
+            for (int i = 0; i < Math.min(Integer.BYTES, digest.length); i++) {
+                hash = hash << 8 | digest[i] & 0xFF;
+            }
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final var other = (Key) o;
+            return hash == other.hash
+                && Arrays.equals(digest, other.digest)
+                && Arrays.equals(signature, other.signature);
+        }
+    }
+}
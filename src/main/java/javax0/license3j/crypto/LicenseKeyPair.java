@@ -130,6 +130,11 @@ public class LicenseKeyPair {
          * selects its own favoutire mode and padding. In this case it may happen that the signing and the verification
          * happening in different environments may use different providers that are not compatible and an otherwise
          * completely perfect license will not verify.
+         * <p>
+         * Elliptic curve keys are created using the cipher {@code EC} with the size of the curve, for example 256 for
+         * the P-256 curve, or using the cipher {@code Ed25519} with the size 255. These keys sign the licenses with
+         * ECDSA or EdDSA instead of encrypting the digest, which is much faster than RSA and creates much shorter
+         * signatures. {@code Ed25519} needs Java 15 or later.
          *
          * @param cipher the cipher string
          * @param size   the size of the key to generate
@@ -188,13 +193,13 @@ public class LicenseKeyPair {
 
         private static PublicKey getPublicEncoded(byte[] buffer) throws NoSuchAlgorithmException, InvalidKeySpecException {
             final var spec = new X509EncodedKeySpec(getEncoded(buffer));
-            final var factory = KeyFactory.getInstance(getAlgorithm(buffer));
+            final var factory = KeyFactory.getInstance(algorithmPrefix(getAlgorithm(buffer)));
             return factory.generatePublic(spec);
         }
 
         private static PrivateKey getPrivateEncoded(byte[] buffer) throws NoSuchAlgorithmException, InvalidKeySpecException {
             final var spec = new PKCS8EncodedKeySpec(getEncoded(buffer));
-            final var factory = KeyFactory.getInstance(getAlgorithm(buffer));
+            final var factory = KeyFactory.getInstance(algorithmPrefix(getAlgorithm(buffer)));
             return factory.generatePrivate(spec);
         }
 
@@ -2,10 +2,13 @@ package javax0.license3j.hardware;
 
 import java.net.NetworkInterface;
 import java.net.SocketException;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class Network {
@@ -33,16 +36,27 @@ public class Network {
         }
         public static class Selector {
 
-            private final Set<String> allowedInterfaceNames = new HashSet<>();
-            private final Set<String> deniedInterfaceNames = new HashSet<>();
+            /*
+             * The pattern maps are copied on write. The maps are never modified after they are published, therefore
+             * the matching, which may run on the background thread of a caching UUIDCalculator, reads them without
+             * locking while other threads add new patterns.
+             */
+            private volatile Map<String, Pattern> allowedInterfaceNames = Collections.emptyMap();
+            private volatile Map<String, Pattern> deniedInterfaceNames = Collections.emptyMap();
+            private final AtomicInteger version = new AtomicInteger();
 
             /**
              * @param string   to match
-             * @param regexSet regular expressions provided as set of strings
+             * @param patterns the compiled regular expressions
              * @return {@code true} if the {@code string} matches any of the regular expressions
              */
-            private static boolean matchesAny(final String string, Set<String> regexSet) {
-                return regexSet.stream().anyMatch(string::matches);
+            private static boolean matchesAny(final String string, Collection<Pattern> patterns) {
+                for (final var pattern : patterns) {
+                    if (pattern.matcher(string).matches()) {
+                        return true;
+                    }
+                }
+                return false;
             }
 
             /**
@@ -69,20 +83,69 @@ public class Network {
              * interface) otherwise.
              */
             private boolean matchesRegexLists(final NetworkInterface netIf) {
-                final String name = netIf.getDisplayName();
+                return matches(netIf.getDisplayName());
+            }
 
-                return !matchesAny(name, deniedInterfaceNames)
+            /**
+             * Check the display name of a network interface against the allowed and denied regular expressions. See
+             * {@link #matchesRegexLists(NetworkInterface)}.
+             *
+             * @param name the display name of the network interface
+             * @return {@code true} if the name is allowed and not denied
+             */
+            boolean matches(final String name) {
+                final var allowed = allowedInterfaceNames;
+                return !matchesAny(name, deniedInterfaceNames.values())
                     &&
-                    (allowedInterfaceNames.isEmpty() ||
-                        matchesAny(name, allowedInterfaceNames));
+                    (allowed.isEmpty() ||
+                        matchesAny(name, allowed.values()));
             }
 
-            public void interfaceAllowed(String regex) {
-                allowedInterfaceNames.add(regex);
+            /**
+             * @param patterns the actual patterns
+             * @param regex    the regular expression to add
+             * @return a new unmodifiable map containing the patterns and the compiled regular expression, or the
+             * original map if it already contains the regular expression
+             */
+            private static Map<String, Pattern> with(Map<String, Pattern> patterns, String regex) {
+                if (patterns.containsKey(regex)) {
+                    return patterns;
+                }
+                final var copy = new LinkedHashMap<>(patterns);
+                copy.put(regex, Pattern.compile(regex));
+                return Collections.unmodifiableMap(copy);
             }
 
-            public void interfaceDenied(String regex) {
-                deniedInterfaceNames.add(regex);
+            /**
+             * Add a regular expression to the allowed interface names. The regular expression is compiled when it is
+             * added.
+             *
+             * @param regex the regular expression
+             * @throws java.util.regex.PatternSyntaxException if the regular expression is not valid
+             */
+            public synchronized void interfaceAllowed(String regex) {
+                allowedInterfaceNames = with(allowedInterfaceNames, regex);
+                version.incrementAndGet();
+            }
+
+            /**
+             * Add a regular expression to the denied interface names. The regular expression is compiled when it is
+             * added.
+             *
+             * @param regex the regular expression
+             * @throws java.util.regex.PatternSyntaxException if the regular expression is not valid
+             */
+            public synchronized void interfaceDenied(String regex) {
+                deniedInterfaceNames = with(deniedInterfaceNames, regex);
+                version.incrementAndGet();
+            }
+
+            /**
+             * @return a number that changes every time the allowed or denied regular expressions are modified. It
+             * is used to invalidate the cached machine UUIDs.
+             */
+            int version() {
+                return version.get();
             }
 
             /**
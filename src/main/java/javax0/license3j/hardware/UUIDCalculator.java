@@ -1,10 +1,17 @@
 package javax0.license3j.hardware;
 
+import java.lang.ref.WeakReference;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Calculate a UUID that is specific to the machne. Note that machines are hard to identify and therefore
@@ -15,16 +22,92 @@ import java.util.UUID;
  * the less parameter you use the more machines may end-up having the same UUID.
  *
  * Machne UUIDs may be used to restrict the usage of a software to certain machines.
- *
+ * <p>
+ * Calculating the UUID enumerates the network interfaces and may need a DNS lookup to get the host name, which can
+ * be slow. Calling {@link #cached(Duration)} switches the calculator to caching mode. In this mode the UUID is
+ * calculated only once for each combination of the {@code useNetwork}, {@code useHostName} and
+ * {@code useArchitecture} parameters, and it is recalculated periodically in the background.
  */
 public class UUIDCalculator {
+    private static final ScheduledExecutorService REFRESHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        final var thread = new Thread(r, "license3j-machine-id-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final HashCalculator calculator;
+    private final Network.Interface.Selector selector;
+    private final ConcurrentHashMap<Integer, Cached> cache = new ConcurrentHashMap<>();
+    private volatile boolean caching;
+    private ScheduledFuture<?> refresh;
 
     public UUIDCalculator(Network.Interface.Selector selector) {
+        this.selector = selector;
         this.calculator = new HashCalculator(selector);
     }
 
+    /**
+     * Switch the calculator to caching mode. The UUID for a combination of the parameters is calculated the first
+     * time it is requested, and it is recalculated by a background daemon thread every {@code refreshInterval}.
+     * The cached values are also recalculated when the allowed or denied network interface name patterns of the
+     * selector change. If the recalculation in the background fails then the last known UUID is kept.
+     * <p>
+     * Calling this method again changes the refresh interval.
+     *
+     * @param refreshInterval the time between two recalculations of the cached UUIDs
+     * @return this object so method calls can be chained
+     */
+    public synchronized UUIDCalculator cached(Duration refreshInterval) {
+        if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("Refresh interval has to be positive.");
+        }
+        if (refresh != null) {
+            refresh.cancel(false);
+        }
+        final var nanos = refreshInterval.toNanos();
+        final var refresher = new Refresher(this);
+        refresh = REFRESHER.scheduleWithFixedDelay(refresher, nanos, nanos, TimeUnit.NANOSECONDS);
+        refresher.future = refresh;
+        caching = true;
+        return this;
+    }
+
     public UUID getMachineId(boolean useNetwork, boolean useHostName, boolean useArchitecture)
+        throws SocketException, UnknownHostException, NoSuchAlgorithmException {
+        if (!caching) {
+            return calculate(useNetwork, useHostName, useArchitecture);
+        }
+        final var key = key(useNetwork, useHostName, useArchitecture);
+        final var version = selector.version();
+        final var cached = cache.get(key);
+        if (cached != null && cached.selectorVersion == version) {
+            return cached.uuid;
+        }
+        final var uuid = calculate(useNetwork, useHostName, useArchitecture);
+        cache.put(key, new Cached(uuid, version));
+        return uuid;
+    }
+
+    /**
+     * Recalculate all the cached UUIDs. Called from the background thread.
+     */
+    private void refresh() {
+        for (final var key : cache.keySet()) {
+            final var version = selector.version();
+            try {
+                final var uuid = calculate((key & 4) != 0, (key & 2) != 0, (key & 1) != 0);
+                cache.put(key, new Cached(uuid, version));
+            } catch (Exception ignored) {
+                // keep the last known value
+            }
+        }
+    }
+
+    private static int key(boolean useNetwork, boolean useHostName, boolean useArchitecture) {
+        return (useNetwork ? 4 : 0) | (useHostName ? 2 : 0) | (useArchitecture ? 1 : 0);
+    }
+
+    UUID calculate(boolean useNetwork, boolean useHostName, boolean useArchitecture)
         throws SocketException, UnknownHostException, NoSuchAlgorithmException {
         final var md5 = MessageDigest.getInstance("MD5");
         md5.reset();
@@ -64,4 +147,40 @@ public class UUIDCalculator {
             return false;
         }
     }
+
+    private static class Cached {
+        private final UUID uuid;
+        private final int selectorVersion;
+
+        private Cached(UUID uuid, int selectorVersion) {
+            this.uuid = uuid;
+            this.selectorVersion = selectorVersion;
+        }
+    }
+
+    /**
+     * The background task refreshing the cache. It references the calculator weakly, so that the calculator can be
+     * garbage collected when it is not used anymore. In that case the task cancels itself.
+     */
+    private static class Refresher implements Runnable {
+        private final WeakReference<UUIDCalculator> calculator;
+        private volatile ScheduledFuture<?> future;
+
+        private Refresher(UUIDCalculator calculator) {
+            this.calculator = new WeakReference<>(calculator);
+        }
+
+        @Override
+        public void run() {
+            final var calculator = this.calculator.get();
+            if (calculator == null) {
+                final var future = this.future;
+                if (future != null) {
+                    future.cancel(false);
+                }
+            } else {
+                calculator.refresh();
+            }
+        }
+    }
 }
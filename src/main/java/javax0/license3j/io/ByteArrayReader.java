@@ -3,9 +3,12 @@ package javax0.license3j.io;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
 
 /**
- * Simple helper class to read all the bytes from an input stream into a byte array.
+ * Simple helper class to read all the bytes from an input stream or from a channel into a byte array.
  */
 class ByteArrayReader {
     static byte[] readInput(InputStream is) throws IOException {
@@ -17,4 +20,22 @@ class ByteArrayReader {
         }
         return buffer.toByteArray();
     }
+
+    /**
+     * Read the bytes from the current position of the channel to the end of the channel. The size of the channel
+     * is known, therefore the bytes are read directly into an array of the exact size.
+     */
+    static byte[] readInput(SeekableByteChannel channel) throws IOException {
+        final var size = channel.size() - channel.position();
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("License file is too long.");
+        }
+        final var buffer = ByteBuffer.allocate((int) Math.max(size, 0));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) == -1) {
+                return Arrays.copyOf(buffer.array(), buffer.position());
+            }
+        }
+        return buffer.array();
+    }
 }
@@ -0,0 +1,165 @@
+package javax0.license3j.io;
+
+import javax0.license3j.LicenseView;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Read licenses from a license archive created by {@link LicenseArchiveWriter}.
+ * <p>
+ * The reader maps the archive file into the memory when it is opened. Finding a license is a binary search in the
+ * index of the archive and the license is returned as a {@link LicenseView} over the mapped file. There is no system
+ * call and no copy of the license bytes when a license is looked up. The operating system reads the pages of the
+ * file that are accessed and keeps them in its cache.
+ * <p>
+ * The reader is thread safe.
+ */
+public class LicenseArchiveReader implements Closeable {
+    /**
+     * The size of the segments of the license data that are mapped separately. A single mapping cannot be larger
+     * than 2GB. Each segment mapping is extended by the length of the longest license, therefore a license that
+     * starts in a segment is always fully inside the mapping of the segment.
+     */
+    private static final long SEGMENT_SIZE = 1L << 30;
+    private final FileChannel channel;
+    private final int count;
+    private final ByteBuffer index;
+    private final MappedByteBuffer[] segments;
+
+    public LicenseArchiveReader(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            final var size = channel.size();
+            if (size < LicenseArchiveWriter.HEADER_SIZE) {
+                throw new IllegalArgumentException("License archive is too short.");
+            }
+            final var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, LicenseArchiveWriter.HEADER_SIZE);
+            if (header.getInt() != LicenseArchiveWriter.MAGIC) {
+                throw new IllegalArgumentException("File is not a license archive.");
+            }
+            final var version = header.getInt();
+            if (version != LicenseArchiveWriter.VERSION) {
+                throw new IllegalArgumentException("License archive version " + version + " is not supported.");
+            }
+            count = header.getInt();
+            final var maxLength = header.getInt();
+            final var indexOffset = header.getLong();
+            final var indexSize = (long) count * LicenseArchiveWriter.INDEX_ENTRY_SIZE;
+            if (count < 0 || maxLength < 0 || indexOffset < LicenseArchiveWriter.HEADER_SIZE
+                || indexOffset + indexSize != size || indexSize > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("License archive is corrupt.");
+            }
+            index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, indexSize);
+            final var segmentCount = (int) ((indexOffset + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                final var start = i * SEGMENT_SIZE;
+                final var end = Math.min(indexOffset, start + SEGMENT_SIZE + maxLength);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public LicenseArchiveReader(String fileName) throws IOException {
+        this(new File(fileName));
+    }
+
+    /**
+     * @return the number of licenses in the archive
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Get the license with the given identifier.
+     *
+     * @param licenseId the identifier of the license
+     * @return the view of the license or {@code null} if there is no license in the archive with the identifier
+     * @throws IllegalArgumentException if the archive is corrupt
+     */
+    public LicenseView get(UUID licenseId) {
+        final var entry = find(licenseId.getMostSignificantBits(), licenseId.getLeastSignificantBits());
+        if (entry == -1) {
+            return null;
+        }
+        return get(entry);
+    }
+
+    /**
+     * Get the license at the position in the index of the archive. The licenses are ordered by their identifier.
+     * This method can be used to iterate over all the licenses in the archive.
+     *
+     * @param position the position of the license in the index, from zero to {@link #size()}{@code - 1}
+     * @return the view of the license
+     * @throws IndexOutOfBoundsException if the position is negative or not less than {@link #size()}
+     * @throws IllegalArgumentException  if the archive is corrupt
+     */
+    public LicenseView get(int position) {
+        Objects.checkIndex(position, count);
+        final var base = position * LicenseArchiveWriter.INDEX_ENTRY_SIZE;
+        final var offset = index.getLong(base + 2 * Long.BYTES);
+        final var length = index.getInt(base + 3 * Long.BYTES);
+        final var segment = segments[(int) (offset / SEGMENT_SIZE)];
+        final var start = (int) (offset % SEGMENT_SIZE);
+        if (length < 0 || start + length > segment.capacity()) {
+            throw new IllegalArgumentException("License archive is corrupt.");
+        }
+        return LicenseView.Create.from(segment.duplicate().position(start).limit(start + length));
+    }
+
+    /**
+     * @param licenseId the identifier of the license
+     * @return {@code true} if the archive contains a license with the given identifier
+     */
+    public boolean contains(UUID licenseId) {
+        return find(licenseId.getMostSignificantBits(), licenseId.getLeastSignificantBits()) != -1;
+    }
+
+    /**
+     * Binary search the index for the identifier.
+     *
+     * @return the index of the entry or -1 if the identifier is not in the index
+     */
+    private int find(long msb, long lsb) {
+        var low = 0;
+        var high = count - 1;
+        while (low <= high) {
+            final var mid = (low + high) >>> 1;
+            final var base = mid * LicenseArchiveWriter.INDEX_ENTRY_SIZE;
+            var cmp = Long.compare(index.getLong(base), msb);
+            if (cmp == 0) {
+                cmp = Long.compare(index.getLong(base + Long.BYTES), lsb);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Close the file. The views that were returned by the reader remain usable.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
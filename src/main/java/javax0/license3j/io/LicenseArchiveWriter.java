@@ -0,0 +1,148 @@
+package javax0.license3j.io;
+
+import javax0.license3j.License;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Write many licenses into a single license archive file. The archive can be read using
+ * {@link LicenseArchiveReader}, which finds a license by the license identifier without reading the whole file.
+ * <p>
+ * The structure of the archive file is
+ * <pre>
+ *     [4-byte magic][4-byte version][4-byte count][4-byte max license length][8-byte index offset]
+ *     [license]...
+ *     [index entry]...
+ * </pre>
+ * The licenses are stored in the binary format, as returned by {@link License#serialized()}, one after the other.
+ * The index contains an entry for each license sorted by the license identifier, the same order as
+ * {@link UUID#compareTo(UUID)} defines. Each entry is
+ * <pre>
+ *     [8-byte most significant bits][8-byte least significant bits][8-byte offset][4-byte length]
+ * </pre>
+ * where the offset is the position of the license in the file. All numbers are big endian.
+ * <p>
+ * Every license added to the archive must have a license identifier (see {@link License#setLicenseId(UUID)}) and
+ * the identifiers have to be unique. A license with an identifier that is already in the archive is rejected and the
+ * archive can still be completed with the other licenses. The index is kept in memory while the licenses are written
+ * and it is written to the end of the file when the writer is closed. The archive cannot be read before the writer is
+ * closed.
+ */
+public class LicenseArchiveWriter implements Closeable {
+    static final int MAGIC = 0x21CE4E5A;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4 * Integer.BYTES + Long.BYTES;
+    static final int INDEX_ENTRY_SIZE = 3 * Long.BYTES + Integer.BYTES;
+
+    private final FileChannel channel;
+    private final Set<UUID> ids = new HashSet<>();
+    private Entry[] entries = new Entry[1024];
+    private int count;
+    private int maxLength;
+    private long position = HEADER_SIZE;
+    private boolean closed;
+
+    public LicenseArchiveWriter(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    public LicenseArchiveWriter(String fileName) throws IOException {
+        this(new File(fileName));
+    }
+
+    /**
+     * Append the license to the archive.
+     *
+     * @param license the license to write into the archive
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if the license does not have a license identifier, or a license with the
+     *                                  same identifier is already in the archive. The license is not written, the
+     *                                  archive remains valid.
+     */
+    public void write(License license) throws IOException {
+        final var id = license.getLicenseId();
+        if (id == null) {
+            throw new IllegalArgumentException("License without license id cannot be archived.");
+        }
+        if (ids.contains(id)) {
+            throw new IllegalArgumentException("License id " + id + " is already in the archive.");
+        }
+        final var buffer = ByteBuffer.allocate(license.serializedSize());
+        license.serializeTo(buffer);
+        buffer.flip();
+        final var length = buffer.remaining();
+        writeFully(buffer, position);
+        ids.add(id);
+        if (count == entries.length) {
+            entries = Arrays.copyOf(entries, 2 * count);
+        }
+        entries[count++] = new Entry(id.getMostSignificantBits(), id.getLeastSignificantBits(), position, length);
+        maxLength = Math.max(maxLength, length);
+        position += length;
+    }
+
+    /**
+     * Write the index and the header of the archive and close the file. Closing an already closed writer has no
+     * effect.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (channel) {
+            Arrays.sort(entries, 0, count, Comparator.<Entry>comparingLong(e -> e.msb).thenComparingLong(e -> e.lsb));
+            final var index = ByteBuffer.allocate(Math.multiplyExact(count, INDEX_ENTRY_SIZE));
+            for (int i = 0; i < count; i++) {
+                final var entry = entries[i];
+                index.putLong(entry.msb)
+                    .putLong(entry.lsb)
+                    .putLong(entry.offset)
+                    .putInt(entry.length);
+            }
+            writeFully(index.flip(), position);
+            final var header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(count)
+                .putInt(maxLength)
+                .putLong(position);
+            writeFully(header.flip(), 0);
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long at) throws IOException {
+        final var start = buffer.position();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, at + buffer.position() - start);
+        }
+    }
+
+    private static class Entry {
+        private final long msb;
+        private final long lsb;
+        private final long offset;
+        private final int length;
+
+        private Entry(long msb, long lsb, long offset, int length) {
+            this.msb = msb;
+            this.lsb = lsb;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package javax0.license3j.io;
 import javax0.license3j.License;
 
 import java.io.*;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
@@ -12,6 +13,7 @@ import java.util.Base64;
 public class LicenseReader implements Closeable {
 
     private final InputStream is;
+    private final SeekableByteChannel channel;
 
     /**
      * Create a new license reader that will read the license from the input stream.
@@ -24,6 +26,38 @@ public class LicenseReader implements Closeable {
      */
     public LicenseReader(InputStream is) {
         this.is = is;
+        this.channel = null;
+    }
+
+    /**
+     * Create a new license reader that will read the license from the channel. The license is read from the
+     * current position of the channel to the end of the channel. The bytes are read into an array of the
+     * exact size in a single pass, without the intermediate buffers that reading from a stream needs.
+     * <p>
+     * The same notes apply about the size limits as in case of {@link #LicenseReader(InputStream)}.
+     *
+     * @param channel the channel from which the license is to be read, typically a
+     *                {@link java.nio.channels.FileChannel}
+     */
+    public LicenseReader(SeekableByteChannel channel) {
+        this.is = null;
+        this.channel = channel;
+    }
+
+    /**
+     * Create a new license reader that will read the license from the channel. If the number of bytes from the
+     * current position of the channel to its end is larger than the given limit then this constructor will throw
+     * illegal argument exception.
+     *
+     * @param channel the channel from which the license is to be read, starting at its current position
+     * @param limit   the maximum number of bytes of the license that the program can handle
+     * @throws IOException if the size or the position of the channel cannot be determined
+     */
+    public LicenseReader(SeekableByteChannel channel, long limit) throws IOException {
+        this(channel);
+        if (channel.size() - channel.position() > limit) {
+            throw new IllegalArgumentException("License file is too long.");
+        }
     }
 
     /**
@@ -36,7 +70,7 @@ public class LicenseReader implements Closeable {
      * @throws FileNotFoundException if the file cannot be found
      */
     public LicenseReader(File file, long limit) throws FileNotFoundException {
-        this(new FileInputStream(file));
+        this(new FileInputStream(file).getChannel());
         if (file.length() > limit) {
             throw new IllegalArgumentException("License file is too long.");
         }
@@ -44,14 +78,14 @@ public class LicenseReader implements Closeable {
 
     /**
      * Create a new license reader that will read the license from the file. This
-     * constructor simply opens an input stream from the file and calls {@link #LicenseReader(InputStream)}.
+     * constructor simply opens the file and calls {@link #LicenseReader(SeekableByteChannel)}.
      * See the notes there about the size limits.
      *
      * @param file the file that contains the license
      * @throws FileNotFoundException if the file cannot be found
      */
     public LicenseReader(File file) throws FileNotFoundException {
-        this(new FileInputStream(file));
+        this(new FileInputStream(file).getChannel());
     }
 
     /**
@@ -102,19 +136,26 @@ public class LicenseReader implements Closeable {
     public License read(IOFormat format) throws IOException {
         switch (format) {
             case BINARY:
-                return License.Create.from(ByteArrayReader.readInput(is));
+                return License.Create.from(readInput());
             case BASE64:
-                return License.Create.from(Base64.getDecoder().decode(ByteArrayReader.readInput(is)));
+                return License.Create.from(Base64.getDecoder().decode(readInput()));
             case STRING:
-                return License.Create.from(new String(ByteArrayReader.readInput(is), StandardCharsets.UTF_8));
+                return License.Create.from(new String(readInput(), StandardCharsets.UTF_8));
         }
         throw new IllegalArgumentException("License format " + format + " is unknown.");
     }
 
+    private byte[] readInput() throws IOException {
+        return channel == null ? ByteArrayReader.readInput(is) : ByteArrayReader.readInput(channel);
+    }
+
     @Override
     public void close() throws IOException {
         if (is != null) {
             is.close();
         }
+        if (channel != null) {
+            channel.close();
+        }
     }
 }
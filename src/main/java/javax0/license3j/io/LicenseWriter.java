@@ -3,6 +3,8 @@ package javax0.license3j.io;
 import javax0.license3j.License;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
@@ -16,6 +18,17 @@ public class LicenseWriter implements Closeable {
         this.os = os;
     }
 
+    /**
+     * Create a new license writer that writes the license into the channel, typically a
+     * {@link java.nio.channels.FileChannel} or another {@link java.nio.channels.SeekableByteChannel}. The bytes of
+     * the license are written to the channel without copying them into intermediate buffers.
+     *
+     * @param channel where the license is written
+     */
+    public LicenseWriter(WritableByteChannel channel) {
+        this(Channels.newOutputStream(channel));
+    }
+
     public LicenseWriter(File file) throws FileNotFoundException {
         this(new FileOutputStream(file));
     }
@@ -35,10 +48,12 @@ public class LicenseWriter implements Closeable {
     public void write(License license, IOFormat format) throws IOException {
         switch (format) {
             case BINARY:
-                os.write(license.serialized());
+                license.writeTo(os);
                 return;
             case BASE64:
-                os.write(Base64.getEncoder().encode(license.serialized()));
+                try (final var encoder = Base64.getEncoder().wrap(new NonClosingOutputStream(os))) {
+                    license.writeTo(encoder);
+                }
                 return;
             case STRING:
                 os.write(license.toString().getBytes(StandardCharsets.UTF_8));
@@ -60,4 +75,24 @@ public class LicenseWriter implements Closeable {
     public void close() {
 
     }
+
+    /**
+     * Closing the Base64 encoding stream writes the final padding characters and closes the underlying stream. This
+     * wrapper keeps the output open after the license was written.
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+        private NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
 }
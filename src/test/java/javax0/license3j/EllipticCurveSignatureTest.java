@@ -0,0 +1,100 @@
+package javax0.license3j;
+
+import javax0.license3j.crypto.LicenseKeyPair;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Modifier;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+
+class EllipticCurveSignatureTest {
+
+    private static License license(int i) {
+        final var license = new License();
+        license.add(Feature.Create.stringFeature("owner", "Peter Verhas"));
+        license.add(Feature.Create.intFeature("serial", i));
+        return license;
+    }
+
+    private static boolean ed25519Available() {
+        try {
+            KeyPairGenerator.getInstance("Ed25519");
+            return true;
+        } catch (NoSuchAlgorithmException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Sign licenses with the key pair and check them all the ways a license signature can be checked.
+     */
+    private static void assertSignsAndVerifies(LicenseKeyPair keyPair) throws Exception {
+        final var otherPair = LicenseKeyPair.Create.from(keyPair.cipher(), keyPair.cipher().equals("EC") ? 256 : 255);
+        final var publicKey = keyPair.getPair().getPublic();
+
+        final var license = license(0);
+        license.sign(keyPair.getPair().getPrivate(), "SHA-512");
+        Assertions.assertTrue(license.isOK(publicKey));
+        Assertions.assertTrue(license.isOK(keyPair.getPublic()));
+        Assertions.assertFalse(license.isOK(otherPair.getPair().getPublic()));
+        Assertions.assertTrue(new LicenseVerifier(publicKey).verify(license));
+        Assertions.assertTrue(new LicenseVerifier(keyPair.getPublic()).verify(license));
+        Assertions.assertTrue(LicenseView.Create.from(license.serialized()).isOK(publicKey));
+        Assertions.assertTrue(License.Create.from(license.serializedCompact()).isOK(publicKey));
+
+        final var restored = LicenseKeyPair.Create.from(keyPair.getPrivate(), Modifier.PRIVATE);
+        final var resigned = license(1);
+        resigned.sign(restored.getPair().getPrivate(), "SHA-256");
+        Assertions.assertTrue(resigned.isOK(publicKey));
+
+        license.add(Feature.Create.stringFeature("owner", "Mallory"));
+        Assertions.assertFalse(license.isOK(publicKey));
+        Assertions.assertFalse(new LicenseVerifier(publicKey).verify(license));
+
+        final var signer = new LicenseSigner(keyPair.getPair().getPrivate(), "SHA-256");
+        final var verifier = new LicenseVerifier(publicKey).cached(new VerificationCache(100, Duration.ofMinutes(1)));
+        final var signed = new ArrayList<License>();
+        signer.signAll(IntStream.range(0, 50).mapToObj(EllipticCurveSignatureTest::license), signed::add);
+        Assertions.assertEquals(50, verifier.verifyAll(signed).validCount());
+        Assertions.assertEquals(50, verifier.verifyAll(signed).validCount());
+        Assertions.assertFalse(verifier.verify(license));
+    }
+
+    @Test
+    @DisplayName("Licenses are signed and verified with ECDSA P-256 keys")
+    void ecdsa() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("EC", 256);
+        assertSignsAndVerifies(keyPair);
+        final var license = license(0);
+        license.sign(keyPair.getPair().getPrivate(), "SHA-512");
+        Assertions.assertTrue(license.getSignature().length < 80);
+    }
+
+    @Test
+    @DisplayName("Licenses are signed and verified with Ed25519 keys")
+    void ed25519() throws Exception {
+        Assumptions.assumeTrue(ed25519Available(), "Ed25519 needs Java 15 or later");
+        final var keyPair = LicenseKeyPair.Create.from("Ed25519", 255);
+        assertSignsAndVerifies(keyPair);
+        final var license = license(0);
+        license.sign(keyPair.getPair().getPrivate(), "SHA-512");
+        Assertions.assertEquals(64, license.getSignature().length);
+    }
+
+    @Test
+    @DisplayName("Keys created with a full cipher transformation can be restored from their bytes")
+    void fullTransformationKeyIsRestored() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA/ECB/PKCS1Padding", 1024);
+        final var restored = LicenseKeyPair.Create.from(keyPair.getPrivate(), keyPair.getPublic());
+        Assertions.assertEquals("RSA/ECB/PKCS1Padding", restored.cipher());
+        final var license = license(0);
+        license.sign(restored.getPair().getPrivate(), "SHA-256");
+        Assertions.assertTrue(license.isOK(keyPair.getPair().getPublic()));
+    }
+}
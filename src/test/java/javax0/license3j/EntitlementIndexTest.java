@@ -0,0 +1,105 @@
+package javax0.license3j;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static javax0.license3j.EntitlementIndex.between;
+import static javax0.license3j.EntitlementIndex.eq;
+import static javax0.license3j.EntitlementIndex.ge;
+import static javax0.license3j.EntitlementIndex.gt;
+import static javax0.license3j.EntitlementIndex.has;
+import static javax0.license3j.EntitlementIndex.le;
+import static javax0.license3j.EntitlementIndex.lt;
+
+class EntitlementIndexTest {
+
+    private static final String[] EDITIONS = {"community", "professional", "enterprise"};
+
+    private static List<License> licenses(int n) {
+        final var random = new Random(42);
+        final var result = new ArrayList<License>();
+        for (int i = 0; i < n; i++) {
+            final var license = new License();
+            license.setLicenseId(new UUID(0, i));
+            license.add(Feature.Create.stringFeature("edition", EDITIONS[random.nextInt(EDITIONS.length)]));
+            license.add(Feature.Create.intFeature("maxUsers", random.nextInt(1000) - 100));
+            license.add(Feature.Create.dateFeature("expiryDate", new Date(random.nextInt(1000) * 1000L)));
+            if (i % 3 == 0) {
+                license.add(Feature.Create.longFeature("quota", random.nextLong()));
+            }
+            result.add(license);
+        }
+        return result;
+    }
+
+    private static List<License> scan(List<License> licenses, Predicate<License> condition) {
+        return licenses.stream().filter(condition).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Queries return the same licenses as a full scan")
+    void queriesMatchFullScan() {
+        final var licenses = licenses(5000);
+        final var sut = EntitlementIndex.Create.from(licenses);
+        Assertions.assertEquals(5000, sut.size());
+        Assertions.assertEquals(
+            scan(licenses, l -> l.get("maxUsers").getInt() > 500 && l.get("edition").getString().equals("enterprise")),
+            sut.find(gt("maxUsers", 500).and(eq("edition", "enterprise"))));
+        Assertions.assertEquals(
+            scan(licenses, l -> l.get("maxUsers").getInt() >= 500 || l.get("maxUsers").getInt() < 0),
+            sut.find(ge("maxUsers", 500).or(lt("maxUsers", 0))));
+        Assertions.assertEquals(
+            scan(licenses, l -> l.get("maxUsers").getInt() <= 10),
+            sut.find(le("maxUsers", 10)));
+        Assertions.assertEquals(
+            scan(licenses, l -> l.get("maxUsers").getInt() == 7),
+            sut.find(eq("maxUsers", 7)));
+        Assertions.assertEquals(
+            scan(licenses, l -> !l.get("edition").getString().equals("community")),
+            sut.find(eq("edition", "community").not()));
+        Assertions.assertEquals(
+            scan(licenses, l -> l.get("expiryDate").getDateMillis() >= 100_000
+                && l.get("expiryDate").getDateMillis() <= 200_000),
+            sut.find(between("expiryDate", new Date(100_000), new Date(200_000))));
+        Assertions.assertEquals(
+            scan(licenses, l -> l.get("quota") != null && l.get("quota").getLong() > 0),
+            sut.find(gt("quota", 0L)));
+        Assertions.assertEquals(
+            scan(licenses, l -> l.get("quota") != null).size(),
+            sut.count(has("quota")));
+    }
+
+    @Test
+    @DisplayName("Queries on UUID features and missing features")
+    void uuidAndMissingFeatures() {
+        final var licenses = licenses(100);
+        final var sut = EntitlementIndex.Create.from(licenses);
+        Assertions.assertEquals(List.of(licenses.get(17)), sut.find(eq("licenseId", new UUID(0, 17))));
+        Assertions.assertEquals(0, sut.count(eq("licenseId", UUID.randomUUID())));
+        Assertions.assertEquals(0, sut.count(eq("nonexistent", "x")));
+        Assertions.assertEquals(0, sut.count(gt("nonexistent", 0)));
+        Assertions.assertEquals(0, sut.count(gt("maxUsers", Long.MAX_VALUE)));
+        Assertions.assertEquals(0, sut.count(lt("maxUsers", Long.MIN_VALUE)));
+        Assertions.assertEquals(100, sut.count(has("nonexistent").not()));
+        Assertions.assertSame(licenses.get(3), sut.license(3));
+    }
+
+    @Test
+    @DisplayName("The result of a query can be modified by the caller")
+    void resultIsACopy() {
+        final var sut = EntitlementIndex.Create.from(licenses(100));
+        final var query = eq("edition", "enterprise");
+        final var expected = sut.count(query);
+        sut.select(query).clear();
+        Assertions.assertEquals(expected, sut.count(query));
+    }
+}
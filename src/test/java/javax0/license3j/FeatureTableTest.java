@@ -0,0 +1,50 @@
+package javax0.license3j;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+class FeatureTableTest {
+
+    @Test
+    @DisplayName("Features are kept sorted by name independent of the order they are put into the table")
+    void featuresAreSorted() {
+        final var sut = new FeatureTable();
+        for (int i = 99; i >= 0; i--) {
+            Assertions.assertNull(sut.put(Feature.Create.intFeature("f" + (i * 37 % 100), i)));
+        }
+        Assertions.assertEquals(100, sut.size());
+        final var sorted = sut.sorted(Set.of());
+        for (int i = 1; i < sorted.length; i++) {
+            Assertions.assertTrue(sorted[i - 1].name().compareTo(sorted[i].name()) < 0);
+        }
+        Assertions.assertEquals(98, sut.sorted(Set.of("f0", "f1")).length);
+    }
+
+    @Test
+    @DisplayName("Putting a feature with an existing name replaces the old feature")
+    void putReplaces() {
+        final var sut = new FeatureTable();
+        final var first = Feature.Create.stringFeature("a", "first");
+        sut.put(first);
+        Assertions.assertSame(first, sut.put(Feature.Create.stringFeature("a", "second")));
+        Assertions.assertEquals(1, sut.size());
+        Assertions.assertEquals("second", sut.get("a").getString());
+        Assertions.assertNull(sut.get("b"));
+    }
+
+    @Test
+    @DisplayName("The copy of the table is not affected by the modification of the original")
+    void copyIsIndependent() {
+        final var sut = new FeatureTable();
+        sut.put(Feature.Create.stringFeature("a", "A"));
+        final var copy = sut.copy();
+        sut.put(Feature.Create.stringFeature("b", "B"));
+        copy.put(Feature.Create.stringFeature("c", "C"));
+        Assertions.assertNull(copy.get("b"));
+        Assertions.assertNull(sut.get("c"));
+        Assertions.assertEquals(2, copy.size());
+    }
+}
@@ -0,0 +1,78 @@
+package javax0.license3j;
+
+import javax0.license3j.crypto.LicenseKeyPair;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.UUID;
+
+class ImmutableLicenseTest {
+
+    private static License sampleLicense() {
+        final var license = new License();
+        license.add(Feature.Create.stringFeature("owner", "Peter Verhas"));
+        license.add(Feature.Create.intFeature("maxUsers", 500));
+        license.setExpiry(new Date(1545047719295L));
+        license.setLicenseId(new UUID(1L, 2L));
+        return license;
+    }
+
+    @Test
+    @DisplayName("Frozen license has the same features and representations as the original")
+    void frozenLicenseIsTheSame() throws IOException {
+        final var license = sampleLicense();
+        final var sut = license.freeze();
+        Assertions.assertEquals("Peter Verhas", sut.get("owner").getString());
+        Assertions.assertEquals(500, sut.get("maxUsers").getInt());
+        Assertions.assertNull(sut.get("nonexistent"));
+        Assertions.assertEquals(new UUID(1L, 2L), sut.getLicenseId());
+        Assertions.assertTrue(sut.isExpired());
+        Assertions.assertArrayEquals(license.serialized(), sut.serialized());
+        Assertions.assertArrayEquals(license.unsigned(), sut.unsigned());
+        Assertions.assertEquals(license.fingerprint(), sut.fingerprint());
+        Assertions.assertEquals(license.toString(), sut.toString());
+        Assertions.assertEquals(license.serializedSize(), sut.serializedSize());
+        final var buffer = ByteBuffer.allocate(sut.serializedSize());
+        sut.serializeTo(buffer);
+        Assertions.assertArrayEquals(license.serialized(), buffer.array());
+        final var os = new ByteArrayOutputStream();
+        sut.writeTo(os);
+        Assertions.assertArrayEquals(license.serialized(), os.toByteArray());
+        Assertions.assertSame(sut, sut.freeze());
+    }
+
+    @Test
+    @DisplayName("Frozen license does not change when the original is modified and it cannot be modified")
+    void frozenLicenseIsImmutable() {
+        final var license = sampleLicense();
+        final var sut = license.freeze();
+        final var fingerprint = sut.fingerprint();
+        license.add(Feature.Create.stringFeature("owner", "Someone Else"));
+        Assertions.assertEquals("Peter Verhas", sut.get("owner").getString());
+        Assertions.assertEquals(fingerprint, sut.fingerprint());
+        Assertions.assertThrows(UnsupportedOperationException.class,
+            () -> sut.add(Feature.Create.stringFeature("owner", "Someone Else")));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> sut.setExpiry(new Date()));
+        Assertions.assertThrows(UnsupportedOperationException.class, sut::setLicenseId);
+    }
+
+    @Test
+    @DisplayName("Signature of a signed license can be checked on the frozen license")
+    void frozenLicenseIsVerified() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var license = sampleLicense();
+        license.sign(keyPair.getPair().getPrivate(), "SHA-512");
+        final var sut = license.freeze();
+        Assertions.assertTrue(sut.isOK(keyPair.getPair().getPublic()));
+        Assertions.assertTrue(new LicenseVerifier(keyPair.getPair().getPublic()).verify(sut));
+        Assertions.assertThrows(UnsupportedOperationException.class,
+            () -> sut.sign(keyPair.getPair().getPrivate(), "SHA-512"));
+        final var copy = new License(sut);
+        Assertions.assertArrayEquals(sut.serialized(), copy.serialized());
+    }
+}
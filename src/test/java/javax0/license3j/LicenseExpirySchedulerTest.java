@@ -0,0 +1,129 @@
+package javax0.license3j;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+class LicenseExpirySchedulerTest {
+
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+    private final LicenseExpiryScheduler.Listener listener = new LicenseExpiryScheduler.Listener() {
+        @Override
+        public void expiring(License license) {
+            events.add("expiring " + license.get("owner").getString());
+        }
+
+        @Override
+        public void expired(License license) {
+            events.add("expired " + license.get("owner").getString());
+        }
+    };
+
+    private static License license(String owner, long expiresInMillis) {
+        final var license = new License();
+        license.add(Feature.Create.stringFeature("owner", owner));
+        license.setExpiry(new Date(System.currentTimeMillis() + expiresInMillis));
+        return license;
+    }
+
+    @Test
+    @DisplayName("Licenses fire the events in the order of their expiry")
+    void eventsFireInOrder() throws InterruptedException {
+        try (final var sut = new LicenseExpiryScheduler(Duration.ofMillis(100), listener)) {
+            sut.register(license("late", 400));
+            sut.register(license("early", 200));
+            Assertions.assertEquals(2, sut.size());
+            Assertions.assertEquals("expiring early", events.poll(5, TimeUnit.SECONDS));
+            Assertions.assertEquals("expired early", events.poll(5, TimeUnit.SECONDS));
+            Assertions.assertEquals("expiring late", events.poll(5, TimeUnit.SECONDS));
+            Assertions.assertEquals("expired late", events.poll(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(0, sut.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Already expired license fires the expiry event only")
+    void expiredLicenseFiresImmediately() throws InterruptedException {
+        try (final var sut = new LicenseExpiryScheduler(Duration.ofDays(1), listener)) {
+            sut.register(license("old", -1000));
+            Assertions.assertEquals("expired old", events.poll(5, TimeUnit.SECONDS));
+            Assertions.assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("License inside the warning period fires the warning immediately")
+    void licenseInWarningPeriod() throws InterruptedException {
+        try (final var sut = new LicenseExpiryScheduler(Duration.ofDays(1), listener)) {
+            sut.register(license("soon", 60_000));
+            Assertions.assertEquals("expiring soon", events.poll(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Cancelled registration does not fire")
+    void cancelledRegistration() throws InterruptedException {
+        try (final var sut = new LicenseExpiryScheduler(listener)) {
+            final var registration = sut.register(license("cancelled", 100));
+            sut.register(license("kept", 200));
+            registration.cancel();
+            Assertions.assertEquals(1, sut.size());
+            Assertions.assertEquals("expired kept", events.poll(5, TimeUnit.SECONDS));
+            Assertions.assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("License cannot be registered after the scheduler was closed")
+    void registerAfterClose() {
+        final var sut = new LicenseExpiryScheduler(Duration.ofMillis(100), listener);
+        sut.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> sut.register(license("late", 1000)));
+        Assertions.assertEquals(0, sut.size());
+    }
+
+    @Test
+    @DisplayName("License without expiry date is not registered")
+    void licenseWithoutExpiry() {
+        try (final var sut = new LicenseExpiryScheduler(listener)) {
+            Assertions.assertNull(sut.register(new License()));
+            Assertions.assertEquals(0, sut.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Licenses expiring at the far ends of the time line do not overflow")
+    void extremeExpiryDates() throws InterruptedException {
+        try (final var sut = new LicenseExpiryScheduler(Duration.ofDays(1), listener)) {
+            final var never = new License();
+            never.add(Feature.Create.stringFeature("owner", "never"));
+            never.setExpiry(new Date(Long.MAX_VALUE));
+            final var ancient = new License();
+            ancient.add(Feature.Create.stringFeature("owner", "ancient"));
+            ancient.setExpiry(new Date(Long.MIN_VALUE));
+            sut.register(never);
+            sut.register(ancient);
+            Assertions.assertEquals("expired ancient", events.poll(5, TimeUnit.SECONDS));
+            Assertions.assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+            Assertions.assertEquals(1, sut.size());
+        }
+    }
+
+    @Test
+    @DisplayName("The time until the expiry saturates")
+    void expiredInSaturates() {
+        Assertions.assertEquals(Long.MAX_VALUE, LicenseExpiryScheduler.expiredIn(Long.MAX_VALUE, 0));
+        Assertions.assertEquals(Long.MAX_VALUE, LicenseExpiryScheduler.expiredIn(Long.MAX_VALUE, -1));
+        Assertions.assertEquals(Long.MAX_VALUE - 9, LicenseExpiryScheduler.expiredIn(Long.MAX_VALUE, 10));
+        Assertions.assertEquals(0, LicenseExpiryScheduler.expiredIn(Long.MIN_VALUE, 10));
+        Assertions.assertEquals(1, LicenseExpiryScheduler.expiredIn(10, 10));
+        Assertions.assertEquals(0, LicenseExpiryScheduler.expiredIn(9, 10));
+    }
+}
@@ -0,0 +1,173 @@
+package javax0.license3j;
+
+import javax0.license3j.crypto.LicenseKeyPair;
+import javax0.license3j.io.IOFormat;
+import javax0.license3j.io.LicenseArchiveReader;
+import javax0.license3j.io.LicenseArchiveWriter;
+import javax0.license3j.io.LicenseWriter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.UUID;
+
+class LicenseRegistryTest {
+
+    private static LicenseKeyPair keyPair;
+
+    @BeforeAll
+    static void createKeys() throws Exception {
+        keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+    }
+
+    private static License signed(UUID id, String owner) throws Exception {
+        final var license = new License();
+        if (id != null) {
+            license.setLicenseId(id);
+        }
+        license.add(Feature.Create.stringFeature("owner", owner));
+        license.sign(keyPair.getPair().getPrivate(), "SHA-256");
+        return license;
+    }
+
+    private static LicenseRegistry newSut() {
+        return new LicenseRegistry(new LicenseVerifier(keyPair.getPair().getPublic()));
+    }
+
+    @Test
+    @DisplayName("Registered licenses are found by license id and by fingerprint")
+    void lookup() throws Exception {
+        final var sut = newSut();
+        final var id = UUID.randomUUID();
+        final var withId = signed(id, "Peter");
+        final var withoutId = signed(null, "Paul");
+        Assertions.assertNull(sut.register(withId));
+        Assertions.assertNull(sut.register(withoutId));
+        Assertions.assertEquals(2, sut.size());
+        Assertions.assertEquals("Peter", sut.get(id).get("owner").getString());
+        Assertions.assertSame(sut.get(id), sut.getByFingerprint(withId.fingerprint()));
+        Assertions.assertEquals("Paul", sut.get(withoutId.fingerprint()).get("owner").getString());
+        Assertions.assertNull(sut.get(UUID.randomUUID()));
+        Assertions.assertSame(sut.get(id), sut.remove(id));
+        Assertions.assertNull(sut.getByFingerprint(withId.fingerprint()));
+        Assertions.assertEquals(1, sut.size());
+    }
+
+    @Test
+    @DisplayName("License with invalid signature is not registered")
+    void invalidLicenseIsRejected() throws Exception {
+        final var sut = newSut();
+        final var license = signed(UUID.randomUUID(), "Peter");
+        license.add(Feature.Create.stringFeature("owner", "Mallory"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.register(license));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.register(new License()));
+        Assertions.assertEquals(0, sut.size());
+    }
+
+    @Test
+    @DisplayName("Renewed license replaces the registered one only if it was not replaced meanwhile")
+    void replace() throws Exception {
+        final var sut = newSut();
+        final var id = UUID.randomUUID();
+        sut.register(signed(id, "old"));
+        final var current = sut.get(id);
+        Assertions.assertTrue(sut.replace(current, signed(id, "new")));
+        Assertions.assertEquals("new", sut.get(id).get("owner").getString());
+        Assertions.assertNull(sut.getByFingerprint(current.fingerprint()));
+        Assertions.assertFalse(sut.replace(current, signed(id, "newer")));
+        Assertions.assertEquals("new", sut.get(id).get("owner").getString());
+        final var otherId = UUID.randomUUID();
+        Assertions.assertTrue(sut.replace(sut.get(id), signed(otherId, "moved")));
+        Assertions.assertNull(sut.get(id));
+        Assertions.assertEquals("moved", sut.get(otherId).get("owner").getString());
+        Assertions.assertEquals(1, sut.size());
+    }
+
+    @Test
+    @DisplayName("Renewed license cannot take the id of another registered license")
+    void replaceCollision() throws Exception {
+        final var sut = newSut();
+        final var id = UUID.randomUUID();
+        final var otherId = UUID.randomUUID();
+        sut.register(signed(id, "renewed"));
+        sut.register(signed(otherId, "other"));
+        final var current = sut.get(id);
+        final var colliding = signed(otherId, "colliding");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.replace(current, colliding));
+        Assertions.assertSame(current, sut.get(id));
+        Assertions.assertEquals("other", sut.get(otherId).get("owner").getString());
+        Assertions.assertSame(sut.get(otherId), sut.getByFingerprint(sut.get(otherId).fingerprint()));
+        Assertions.assertNull(sut.getByFingerprint(colliding.fingerprint()));
+        Assertions.assertEquals(2, sut.size());
+    }
+
+    @Test
+    @DisplayName("Licenses are loaded from a directory")
+    void loadDirectory() throws Exception {
+        final var directory = Files.createTempDirectory("licenses");
+        final var ids = new ArrayList<UUID>();
+        try {
+            for (int i = 0; i < 20; i++) {
+                final var id = UUID.randomUUID();
+                ids.add(id);
+                try (final var writer = new LicenseWriter(directory.resolve(i + ".bin").toFile())) {
+                    writer.write(signed(id, "owner " + i), IOFormat.BINARY);
+                }
+            }
+            final var sut = newSut();
+            Assertions.assertEquals(20, sut.load(directory, IOFormat.BINARY));
+            for (int i = 0; i < ids.size(); i++) {
+                Assertions.assertEquals("owner " + i, sut.get(ids.get(i)).get("owner").getString());
+            }
+            Assertions.assertEquals(0, sut.load(directory, IOFormat.BINARY));
+            try (final var writer = new LicenseWriter(directory.resolve("copy.bin").toFile())) {
+                writer.write(signed(ids.get(0), "owner 0"), IOFormat.BINARY);
+            }
+            try (final var writer = new LicenseWriter(directory.resolve("new.bin").toFile())) {
+                writer.write(signed(null, "new owner"), IOFormat.BINARY);
+            }
+            Assertions.assertEquals(1, sut.load(directory, IOFormat.BINARY));
+            Assertions.assertEquals(21, sut.size());
+            Assertions.assertEquals(21, newSut().load(directory, IOFormat.BINARY));
+            Files.write(directory.resolve("garbage.bin"), new byte[]{1, 2, 3});
+            Assertions.assertThrows(IllegalArgumentException.class, () -> newSut().load(directory, IOFormat.BINARY));
+        } finally {
+            try (final var files = Files.list(directory)) {
+                for (final var file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    @DisplayName("Licenses are loaded from an archive")
+    void loadArchive() throws Exception {
+        final var file = File.createTempFile("licenses", ".archive");
+        try {
+            final var ids = new ArrayList<UUID>();
+            try (final var writer = new LicenseArchiveWriter(file)) {
+                for (int i = 0; i < 50; i++) {
+                    final var id = UUID.randomUUID();
+                    ids.add(id);
+                    writer.write(signed(id, "owner " + i));
+                }
+            }
+            final var sut = newSut();
+            try (final var archive = new LicenseArchiveReader(file)) {
+                Assertions.assertEquals(50, sut.load(archive));
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                Assertions.assertEquals("owner " + i, sut.get(ids.get(i)).get("owner").getString());
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+}
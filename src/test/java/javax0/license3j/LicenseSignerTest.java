@@ -0,0 +1,82 @@
+package javax0.license3j;
+
+import javax0.license3j.crypto.LicenseKeyPair;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+class LicenseSignerTest {
+
+    private static License license(int i) {
+        final var license = new License();
+        license.add(Feature.Create.intFeature("serial", i));
+        return license;
+    }
+
+    @Test
+    @DisplayName("A license signed by the signer is verified the same as one signed by the license itself")
+    void signsLicense() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var sut = new LicenseSigner(keyPair.getPair().getPrivate(), "SHA-512");
+        final var license = license(1);
+        sut.sign(license);
+        Assertions.assertTrue(license.isOK(keyPair.getPair().getPublic()));
+        Assertions.assertEquals("SHA-512", license.get("signatureDigest").getString());
+    }
+
+    @Test
+    @DisplayName("Bulk signing in order passes the licenses to the sink in the order of the stream")
+    void signsAllInOrder() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var sut = new LicenseSigner(keyPair.getPair().getPrivate(), "SHA-256");
+        final var verifier = new LicenseVerifier(keyPair.getPair().getPublic());
+        final var signed = new ArrayList<License>();
+        sut.signAll(IntStream.range(0, 100).mapToObj(LicenseSignerTest::license), signed::add);
+        Assertions.assertEquals(100, signed.size());
+        for (int i = 0; i < signed.size(); i++) {
+            Assertions.assertEquals(i, signed.get(i).get("serial").getInt());
+            Assertions.assertTrue(verifier.verify(signed.get(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Bulk signing unordered signs every license and keeps at most window licenses in flight")
+    void signsAllUnorderedWithinWindow() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var sut = new LicenseSigner(keyPair.getPair().getPrivate(), "SHA-256");
+        final var executor = Executors.newFixedThreadPool(4);
+        final var taken = new AtomicInteger();
+        final var serials = new HashSet<Integer>();
+        final List<Integer> inFlightWhenEmitted = new ArrayList<>();
+        try {
+            sut.signAll(IntStream.range(0, 60).mapToObj(i -> {
+                taken.incrementAndGet();
+                return license(i);
+            }), license -> {
+                serials.add(license.get("serial").getInt());
+                inFlightWhenEmitted.add(taken.get() - serials.size() + 1);
+            }, executor, 5, false);
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(60, serials.size());
+        Assertions.assertTrue(inFlightWhenEmitted.stream().allMatch(n -> n <= 5));
+    }
+
+    @Test
+    @DisplayName("Non positive window is rejected")
+    void nonPositiveWindowThrows() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var sut = new LicenseSigner(keyPair.getPair().getPrivate(), "SHA-256");
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> sut.signAll(IntStream.range(0, 1).mapToObj(LicenseSignerTest::license), l -> {
+            }, Runnable::run, 0, true));
+    }
+}
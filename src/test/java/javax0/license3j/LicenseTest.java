@@ -10,9 +10,17 @@ import org.junit.jupiter.api.Test;
 import javax.crypto.BadPaddingException;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 class LicenseTest {
 
@@ -26,6 +34,19 @@ class LicenseTest {
         Assertions.assertEquals(now, sut.get("expiry").getDate());
     }
 
+    @Test
+    @DisplayName("License expiry is checked against the given time")
+    void expiryAgainstGivenTime() {
+        final var sut = new License();
+        sut.setExpiry(new Date(1545047719295L));
+        Assertions.assertFalse(sut.isExpired(1545047719295L));
+        Assertions.assertTrue(sut.isExpired(1545047719296L));
+        Assertions.assertTrue(sut.isExpired());
+        final var view = LicenseView.Create.from(sut.serialized());
+        Assertions.assertFalse(view.isExpired(1545047719295L));
+        Assertions.assertTrue(view.isExpired(1545047719296L));
+    }
+
     private void addSampleFeatures(License sut, Date now) {
         sut.add(Feature.Create.stringFeature("owner", "Peter Verhas"));
         sut.add(Feature.Create.stringFeature("title", "A license test, \ntest license"));
@@ -93,6 +114,44 @@ class LicenseTest {
         Assertions.assertEquals(fpUnsigned,fpSignedMD5);
     }
 
+    @Test
+    @DisplayName("A signed license in compact format is restored with the same features and is still signed")
+    void compactFormatRoundTrip() throws NoSuchAlgorithmException, IllegalBlockSizeException,
+        InvalidKeyException, BadPaddingException, NoSuchPaddingException {
+        final var sut = new License();
+        addSampleFeatures(sut, new Date(1545047719295L));
+        sut.add(Feature.Create.binaryFeature("large", new byte[300]));
+        sut.add(Feature.Create.stringFeature("\u00e1rv\u00edzt\u0171r\u0151", "t\u00fck\u00f6rf\u00far\u00f3g\u00e9p"));
+        sut.setExpiry(new Date(1545047719295L));
+        sut.setLicenseId(new java.util.UUID(1L, 2L));
+        final var keys = LicenseKeyPair.Create.from("RSA", 1024);
+        sut.sign(keys.getPair().getPrivate(), "SHA-512");
+        final var compact = sut.serializedCompact();
+        Assertions.assertTrue(compact.length < sut.serialized().length);
+        final var restored = License.Create.from(compact);
+        Assertions.assertArrayEquals(sut.serialized(), restored.serialized());
+        Assertions.assertArrayEquals(compact, restored.serializedCompact());
+        Assertions.assertTrue(restored.isOK(keys.getPair().getPublic()));
+    }
+
+    @Test
+    @DisplayName("Corrupt compact license throws IllegalArgumentException")
+    void corruptCompactLicense() {
+        final var sut = new License();
+        addSampleFeatures(sut, new Date(1545047719295L));
+        final var compact = sut.serializedCompact();
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> License.Create.from(Arrays.copyOf(compact, compact.length - 1)));
+        final var badType = compact.clone();
+        badType[Integer.BYTES] = 0x7F;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> License.Create.from(badType));
+        final var badName = new byte[]{0x21, (byte) 0xCE, 0x4E, 0x5F, (byte) 0x82, 0x7F};
+        Assertions.assertThrows(IllegalArgumentException.class, () -> License.Create.from(badName));
+        final var badLength = new byte[]{0x21, (byte) 0xCE, 0x4E, 0x5F, 0x02, 1, 'a',
+            (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x7F};
+        Assertions.assertThrows(IllegalArgumentException.class, () -> License.Create.from(badLength));
+    }
+
     @Test
     @DisplayName("A license with an expiry date a day ago has expired")
     void pastExpiryTimeReportsExpired() {
@@ -116,4 +175,80 @@ class LicenseTest {
         Assertions.assertNotNull(lic.getLicenseId());
     }
 
+    @Test
+    @DisplayName("Serializing into a heap or direct buffer results the same bytes as serialized()")
+    void serializeToBuffer() {
+        final var sut = new License();
+        addSampleFeatures(sut, new Date(1545047719295L));
+        final var expected = sut.serialized();
+        Assertions.assertEquals(expected.length, sut.serializedSize());
+        for (final var buffer : List.of(ByteBuffer.allocate(expected.length + 3),
+            ByteBuffer.allocateDirect(expected.length + 3).order(ByteOrder.LITTLE_ENDIAN))) {
+            final var order = buffer.order();
+            buffer.put((byte) 0x55);
+            Assertions.assertEquals(expected.length, sut.serializeTo(buffer));
+            Assertions.assertEquals(expected.length + 1, buffer.position());
+            Assertions.assertEquals(order, buffer.order());
+            final var actual = new byte[expected.length];
+            buffer.position(1);
+            buffer.get(actual);
+            Assertions.assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    @DisplayName("Serializing into a too small buffer throws exception and does not write the buffer")
+    void serializeToSmallBuffer() {
+        final var sut = new License();
+        addSampleFeatures(sut, new Date(1545047719295L));
+        final var buffer = ByteBuffer.allocate(sut.serializedSize() - 1);
+        Assertions.assertThrows(BufferOverflowException.class, () -> sut.serializeTo(buffer));
+        Assertions.assertEquals(0, buffer.position());
+    }
+
+    @Test
+    @DisplayName("Writing to an output stream results the same bytes as serialized()")
+    void writeToStream() throws IOException {
+        final var sut = new License();
+        addSampleFeatures(sut, new Date(1545047719295L));
+        final var os = new ByteArrayOutputStream();
+        sut.writeTo(os);
+        Assertions.assertArrayEquals(sut.serialized(), os.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Cached binary representation is dropped when a feature is added")
+    void cachedSerializationIsInvalidated() {
+        final var sut = new License();
+        addSampleFeatures(sut, new Date(1545047719295L));
+        final var serialized = sut.serialized();
+        final var unsigned = sut.unsigned();
+        final var fingerprint = sut.fingerprint();
+        serialized[serialized.length - 1] = (byte) ~serialized[serialized.length - 1];
+        Assertions.assertArrayEquals(unsigned, sut.unsigned());
+        Assertions.assertFalse(Arrays.equals(serialized, sut.serialized()));
+        Assertions.assertEquals(fingerprint, sut.fingerprint());
+        sut.setExpiry(new Date(1545047719296L));
+        Assertions.assertFalse(Arrays.equals(unsigned, sut.unsigned()));
+        Assertions.assertNotEquals(fingerprint, sut.fingerprint());
+        Assertions.assertArrayEquals(sut.serialized(), License.Create.from(sut.serialized()).serialized());
+    }
+
+    @Test
+    @DisplayName("Streaming digest of a license results the same digest as digesting the unsigned bytes")
+    void streamingDigestIsTheSame() throws NoSuchAlgorithmException {
+        final var sut = new License();
+        addSampleFeatures(sut, new Date(1545047719295L));
+        sut.add(Feature.Create.binaryFeature("blob", new byte[100_000]));
+        sut.add(Feature.Create.stringFeature("signatureDigest", "SHA-256"));
+        sut.add(new byte[]{1, 2, 3});
+        final var streamed = MessageDigest.getInstance("SHA-256");
+        sut.digestUnsigned(streamed);
+        final var expected = MessageDigest.getInstance("SHA-256").digest(sut.unsigned());
+        Assertions.assertArrayEquals(expected, streamed.digest());
+        final var cached = MessageDigest.getInstance("SHA-256");
+        sut.digestUnsigned(cached);
+        Assertions.assertArrayEquals(expected, cached.digest());
+    }
+
 }
@@ -0,0 +1,110 @@
+package javax0.license3j;
+
+import javax0.license3j.crypto.LicenseKeyPair;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static javax0.license3j.TestLicenses.signedLicense;
+
+class LicenseVerifierTest {
+
+    @Test
+    @DisplayName("Verifier accepts a properly signed license and rejects a tampered one")
+    void verifiesSignature() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 2048);
+        final var license = signedLicense(keyPair, "Peter Verhas");
+        final var sut = new LicenseVerifier(keyPair.getPair().getPublic());
+        Assertions.assertTrue(sut.verify(license));
+        license.getSignature()[0] = (byte) ~license.getSignature()[0];
+        Assertions.assertFalse(sut.verify(license));
+        license.getSignature()[0] = (byte) ~license.getSignature()[0];
+        Assertions.assertTrue(sut.verify(license));
+    }
+
+    @Test
+    @DisplayName("Verifier created from the serialized public key accepts the license")
+    void verifiesWithSerializedKey() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 2048);
+        final var license = signedLicense(keyPair, "Peter Verhas");
+        final var sut = new LicenseVerifier(keyPair.getPublic());
+        Assertions.assertTrue(sut.verify(license));
+        license.add(Feature.Create.stringFeature("owner", "Someone Else"));
+        Assertions.assertFalse(sut.verify(license));
+    }
+
+    @Test
+    @DisplayName("Verifier rejects licenses that are not signed or signed with a different key")
+    void rejectsUnsignedAndForeignLicense() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var otherPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var sut = new LicenseVerifier(keyPair.getPair().getPublic());
+        Assertions.assertFalse(sut.verify(new License()));
+        Assertions.assertFalse(sut.verify(signedLicense(otherPair, "Peter Verhas")));
+        Assertions.assertTrue(sut.verify(signedLicense(keyPair, "Peter Verhas")));
+    }
+
+    @Test
+    @DisplayName("One verifier can be used from many threads at the same time")
+    void verifiesConcurrently() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var licenses = new ArrayList<License>();
+        for (int i = 0; i < 20; i++) {
+            licenses.add(signedLicense(keyPair, "owner " + i));
+        }
+        final var sut = new LicenseVerifier(keyPair.getPair().getPublic());
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                final var license = licenses.get(i % licenses.size());
+                results.add(executor.submit(() -> sut.verify(license)));
+            }
+            for (final var result : results) {
+                Assertions.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Creating a verifier from a garbage serialized key throws exception")
+    void garbageKeyThrows() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> new LicenseVerifier(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    @DisplayName("Batch verification reports the status of each license")
+    void verifiesBatch() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var otherPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var licenses = new ArrayList<License>();
+        for (int i = 0; i < 50; i++) {
+            licenses.add(signedLicense(i % 7 == 0 ? otherPair : keyPair, "owner " + i));
+        }
+        final var sut = new LicenseVerifier(keyPair.getPair().getPublic());
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (final var result : List.of(sut.verifyAll(licenses), sut.verifyAll(licenses, executor),
+                sut.verifyAll(licenses.stream()))) {
+                Assertions.assertEquals(50, result.size());
+                Assertions.assertEquals(8, result.invalidCount());
+                for (int i = 0; i < 50; i++) {
+                    Assertions.assertEquals(i % 7 != 0, result.isValid(i));
+                    Assertions.assertEquals(i % 7 != 0, result.valid().get(i));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(0, sut.verifyAll(List.of()).size());
+    }
+}
@@ -0,0 +1,103 @@
+package javax0.license3j;
+
+import javax0.license3j.crypto.LicenseKeyPair;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.UUID;
+
+class LicenseViewTest {
+
+    private static License sampleLicense() {
+        final var license = new License();
+        license.add(Feature.Create.stringFeature("owner", "Peter Verhas"));
+        license.add(Feature.Create.intFeature("maxUsers", 500));
+        license.add(Feature.Create.binaryFeature("logo", new byte[10_000]));
+        license.setExpiry(new Date(new Date().getTime() + 24 * 60 * 60 * 1000));
+        license.setLicenseId(new UUID(1L, 2L));
+        return license;
+    }
+
+    @Test
+    @DisplayName("The view returns the same features as the license it was serialized from")
+    void viewReturnsTheFeatures() {
+        final var license = sampleLicense();
+        final var sut = LicenseView.Create.from(license.serialized());
+        Assertions.assertEquals(5, sut.size());
+        Assertions.assertEquals("Peter Verhas", sut.get("owner").getString());
+        Assertions.assertEquals(500, sut.get("maxUsers").getInt());
+        Assertions.assertEquals(10_000, sut.get("logo").getBinary().length);
+        Assertions.assertEquals(new UUID(1L, 2L), sut.getLicenseId());
+        Assertions.assertFalse(sut.isExpired());
+        Assertions.assertTrue(sut.contains("owner"));
+        Assertions.assertFalse(sut.contains("nonexistent"));
+        Assertions.assertNull(sut.get("nonexistent"));
+        Assertions.assertArrayEquals(license.serialized(), sut.toLicense().serialized());
+    }
+
+    @Test
+    @DisplayName("The view reads the license from the buffer between position and limit")
+    void viewOfDirectBufferRegion() {
+        final var license = sampleLicense();
+        final var serialized = license.serialized();
+        final var buffer = ByteBuffer.allocateDirect(serialized.length + 20);
+        buffer.position(10);
+        buffer.put(serialized);
+        buffer.position(10).limit(10 + serialized.length);
+        final var sut = LicenseView.Create.from(buffer);
+        Assertions.assertEquals(10, buffer.position());
+        Assertions.assertEquals("Peter Verhas", sut.get("owner").getString());
+    }
+
+    @Test
+    @DisplayName("The signature of the view is checked directly over the buffer")
+    void viewSignatureIsChecked() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var license = sampleLicense();
+        license.sign(keyPair.getPair().getPrivate(), "SHA-512");
+        final var serialized = license.serialized();
+        final var verifier = new LicenseVerifier(keyPair.getPair().getPublic());
+        Assertions.assertTrue(verifier.verify(LicenseView.Create.from(serialized)));
+        Assertions.assertTrue(LicenseView.Create.from(serialized).isOK(keyPair.getPair().getPublic()));
+        serialized[serialized.length - 1] = (byte) ~serialized[serialized.length - 1];
+        Assertions.assertFalse(verifier.verify(LicenseView.Create.from(serialized)));
+    }
+
+    @Test
+    @DisplayName("The signature of a view with features not in canonical order is checked the same way as the license")
+    void nonCanonicalViewSignatureIsChecked() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var license = new License();
+        license.add(Feature.Create.stringFeature("b", "B"));
+        license.add(Feature.Create.stringFeature("a", "A"));
+        license.sign(keyPair.getPair().getPrivate(), "SHA-512");
+        final var features = new Feature[]{license.get("signatureDigest"), license.get("b"),
+            license.get("licenseSignature"), license.get("a")};
+        var size = Integer.BYTES;
+        for (final var feature : features) {
+            size += Integer.BYTES + feature.serialized().length;
+        }
+        final var buffer = ByteBuffer.allocate(size).putInt(License.MAGIC);
+        for (final var feature : features) {
+            buffer.putInt(feature.serialized().length).put(feature.serialized());
+        }
+        final var sut = LicenseView.Create.from(buffer.array());
+        Assertions.assertTrue(sut.isOK(keyPair.getPair().getPublic()));
+    }
+
+    @Test
+    @DisplayName("Corrupt binary license cannot be viewed")
+    void corruptLicenseThrows() {
+        final var serialized = sampleLicense().serialized();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LicenseView.Create.from(new byte[]{1, 2}));
+        final var badMagic = serialized.clone();
+        badMagic[0] = 0;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LicenseView.Create.from(badMagic));
+        final var truncated = new byte[serialized.length - 1];
+        System.arraycopy(serialized, 0, truncated, 0, truncated.length);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LicenseView.Create.from(truncated));
+    }
+}
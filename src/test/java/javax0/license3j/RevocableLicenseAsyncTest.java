@@ -0,0 +1,127 @@
+package javax0.license3j;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class RevocableLicenseAsyncTest {
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/licenses/", exchange -> {
+            requests.incrementAndGet();
+            final var path = exchange.getRequestURI().getPath();
+            final var id = UUID.fromString(path.substring(path.lastIndexOf('/') + 1));
+            exchange.sendResponseHeaders(id.getLeastSignificantBits() % 2 == 0 ? 200 : 404, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private RevocableLicense license(long id) {
+        final var license = new License();
+        license.setLicenseId(new UUID(0L, id));
+        final var revocable = new RevocableLicense(license);
+        revocable.setRevocationURL(baseUrl() + "/licenses/${licenseId}");
+        return revocable;
+    }
+
+    @Test
+    @DisplayName("Many licenses are checked concurrently")
+    void manyLicensesAreChecked() {
+        final var futures = new ArrayList<CompletableFuture<Boolean>>();
+        for (long i = 0; i < 200; i++) {
+            futures.add(license(i).isRevokedAsync());
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            Assertions.assertEquals(i % 2 == 1, futures.get(i).join());
+        }
+        Assertions.assertEquals(200, requests.get());
+    }
+
+    @Test
+    @DisplayName("Unreachable revocation service results the default revocation state")
+    void unreachableService() throws IOException {
+        final int port;
+        try (final var socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final var license = new RevocableLicense(new License());
+        license.setRevocationURL("http://localhost:" + port + "/revoked");
+        Assertions.assertTrue(license.isRevokedAsync(true).join());
+        Assertions.assertFalse(license.isRevokedAsync(false).join());
+        Assertions.assertFalse(new RevocableLicense(new License()).isRevokedAsync(true).join());
+    }
+
+    @Test
+    @DisplayName("Non HTTP revocation URL results the same state synchronously and asynchronously")
+    void nonHttpUrl() {
+        final var license = new RevocableLicense(new License());
+        for (final var url : new String[]{"file:///license3j/revoked", "ftp://localhost/revoked"}) {
+            license.setRevocationURL(url);
+            Assertions.assertFalse(license.isRevoked(true));
+            Assertions.assertFalse(license.isRevokedAsync(true).join());
+            final var cache = new RevocationCache(Duration.ofHours(1), Duration.ofMinutes(1));
+            Assertions.assertFalse(license.cached(cache).isRevokedAsync(true).join());
+            license.cached(null);
+        }
+    }
+
+    @Test
+    @DisplayName("Slow revocation service times out and results the default revocation state")
+    void slowService() {
+        final var license = new RevocableLicense(new License()).requestTimeout(Duration.ofMillis(100));
+        license.setRevocationURL(baseUrl() + "/slow");
+        Assertions.assertTrue(license.isRevokedAsync(true).join());
+        final var start = System.nanoTime();
+        Assertions.assertTrue(license.isRevoked(true));
+        Assertions.assertTrue(System.nanoTime() - start < Duration.ofMillis(1500).toNanos());
+    }
+
+    @Test
+    @DisplayName("Cached revocation state is returned without calling the revocation service")
+    void cachedState() {
+        final var cache = new RevocationCache(Duration.ofHours(1), Duration.ofMinutes(1));
+        Assertions.assertTrue(license(1).cached(cache).isRevokedAsync().join());
+        final var cached = license(1).cached(cache).isRevokedAsync();
+        Assertions.assertTrue(cached.isDone());
+        Assertions.assertTrue(cached.join());
+        Assertions.assertEquals(1, requests.get());
+    }
+}
@@ -0,0 +1,210 @@
+package javax0.license3j;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class RevocationCacheTest {
+
+    private long now = 0;
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private RevocationCache newSut() {
+        return newSut(100);
+    }
+
+    private RevocationCache newSut(int maxSize) {
+        return new RevocationCache(Duration.ofNanos(100), Duration.ofNanos(10), tasks::add, maxSize, () -> now);
+    }
+
+    private void runTasks() {
+        final var copy = new ArrayList<>(tasks);
+        tasks.clear();
+        copy.forEach(Runnable::run);
+    }
+
+    @Test
+    @DisplayName("The state is loaded once and then served from the cache")
+    void stateIsCached() throws IOException {
+        final var sut = newSut();
+        final var loads = new AtomicInteger();
+        final var url = new URL("https://example.com/1");
+        Assertions.assertTrue(sut.revoked(url, u -> loads.incrementAndGet() > 0));
+        Assertions.assertTrue(sut.revoked(url, u -> loads.incrementAndGet() > 0));
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1, sut.misses());
+        Assertions.assertEquals(1, sut.hits());
+        Assertions.assertEquals(1, sut.size());
+        Assertions.assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Expired state is returned while it is refreshed in the background")
+    void staleWhileRevalidate() throws IOException {
+        final var sut = newSut();
+        final var url = new URL("https://example.com/1");
+        Assertions.assertFalse(sut.revoked(url, u -> false));
+        now = 101;
+        Assertions.assertFalse(sut.revoked(url, u -> true));
+        Assertions.assertFalse(sut.revoked(url, u -> true));
+        Assertions.assertEquals(1, tasks.size());
+        Assertions.assertEquals(1, sut.refreshes());
+        runTasks();
+        Assertions.assertTrue(sut.revoked(url, u -> true));
+        Assertions.assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Unreachable service is cached for the negative time to live")
+    void unreachableIsCachedShorter() throws IOException {
+        final var sut = newSut();
+        final var url = new URL("https://example.com/1");
+        Assertions.assertNull(sut.revoked(url, u -> {
+            throw new IOException();
+        }));
+        now = 5;
+        Assertions.assertNull(sut.revoked(url, u -> false));
+        Assertions.assertTrue(tasks.isEmpty());
+        now = 11;
+        Assertions.assertNull(sut.revoked(url, u -> false));
+        runTasks();
+        Assertions.assertFalse(sut.revoked(url, u -> true));
+    }
+
+    @Test
+    @DisplayName("Loader failing in the background refresh does not stop later refreshes")
+    void failingRefreshIsRetried() throws IOException {
+        final var sut = newSut();
+        final var url = new URL("https://example.com/1");
+        Assertions.assertFalse(sut.revoked(url, u -> false));
+        now = 101;
+        Assertions.assertFalse(sut.revoked(url, u -> {
+            throw new IllegalStateException();
+        }));
+        runTasks();
+        Assertions.assertNull(sut.revoked(url, u -> true));
+        now = 112;
+        Assertions.assertNull(sut.revoked(url, u -> true));
+        Assertions.assertEquals(1, tasks.size());
+        runTasks();
+        Assertions.assertTrue(sut.revoked(url, u -> false));
+    }
+
+    @Test
+    @DisplayName("Loader failing on the first lookup is treated as unreachable service")
+    void failingLoadIsUnreachable() throws IOException {
+        final var sut = newSut();
+        Assertions.assertNull(sut.revoked(new URL("https://example.com/1"), u -> {
+            throw new IllegalStateException();
+        }));
+    }
+
+    @Test
+    @DisplayName("Full cache evicts the expired entries, or the oldest one")
+    void fullCacheEvicts() throws IOException {
+        final var sut = newSut(2);
+        Assertions.assertFalse(sut.revoked(new URL("https://example.com/1"), u -> false));
+        now = 10;
+        Assertions.assertFalse(sut.revoked(new URL("https://example.com/2"), u -> false));
+        now = 20;
+        Assertions.assertTrue(sut.revoked(new URL("https://example.com/3"), u -> true));
+        Assertions.assertEquals(2, sut.size());
+        Assertions.assertEquals(1, sut.evictions());
+        Assertions.assertTrue(sut.revoked(new URL("https://example.com/1"), u -> true));
+        Assertions.assertEquals(2, sut.evictions());
+        Assertions.assertTrue(sut.revoked(new URL("https://example.com/3"), u -> false));
+        Assertions.assertEquals(2, sut.size());
+        Assertions.assertEquals(4, sut.misses());
+    }
+
+    @Test
+    @DisplayName("Concurrent lookups of a new URL download the state only once")
+    void concurrentMissesLoadOnce() throws Exception {
+        final var sut = new RevocationCache(Duration.ofHours(1), Duration.ofMinutes(1), Runnable::run);
+        final var url = new URL("https://example.com/1");
+        final var loads = new AtomicInteger();
+        final var release = new CountDownLatch(1);
+        final RevocationCache.Loader loader = u -> {
+            loads.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        };
+        final var executor = Executors.newFixedThreadPool(8);
+        try {
+            final var results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit((Callable<Boolean>) () -> sut.revoked(url, loader)));
+            }
+            final var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (sut.misses() < 8 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (final var result : results) {
+                Assertions.assertTrue(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1, sut.size());
+    }
+
+    @Test
+    @DisplayName("Concurrent asynchronous lookups of a new URL download the state only once")
+    void concurrentAsyncMissesLoadOnce() throws IOException {
+        final var sut = newSut();
+        final var url = new URL("https://example.com/1");
+        final var loads = new AtomicInteger();
+        final var download = new CompletableFuture<Boolean>();
+        final var first = sut.revokedAsync(url, u -> {
+            loads.incrementAndGet();
+            return download;
+        });
+        final var second = sut.revokedAsync(url, u -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(false);
+        });
+        Assertions.assertFalse(second.isDone());
+        download.complete(true);
+        Assertions.assertTrue(first.join());
+        Assertions.assertTrue(second.join());
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Each entry removed from a full cache is counted")
+    void everyEvictionIsCounted() throws IOException {
+        final var sut = newSut(32);
+        for (int i = 0; i < 32; i++) {
+            Assertions.assertFalse(sut.revoked(new URL("https://example.com/" + i), u -> false));
+        }
+        now = 200;
+        Assertions.assertTrue(sut.revoked(new URL("https://example.com/new"), u -> true));
+        Assertions.assertEquals(32, sut.evictions());
+        Assertions.assertEquals(1, sut.size());
+        for (int i = 0; i < 32; i++) {
+            now++;
+            sut.revoked(new URL("https://example.com/" + i), u -> false);
+        }
+        Assertions.assertEquals(35, sut.evictions());
+        Assertions.assertEquals(30, sut.size());
+    }
+}
@@ -0,0 +1,163 @@
+package javax0.license3j;
+
+import javax0.license3j.crypto.LicenseKeyPair;
+import javax0.license3j.io.IOFormat;
+import javax0.license3j.io.LicenseWriter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+class RevocationListTest {
+
+    private static LicenseKeyPair keyPair;
+
+    @BeforeAll
+    static void createKeys() throws Exception {
+        keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+    }
+
+    private static License signed(License license) throws Exception {
+        license.sign(keyPair.getPair().getPrivate(), "SHA-512");
+        return license;
+    }
+
+    private static RevocationList newSut() {
+        return new RevocationList(new LicenseVerifier(keyPair.getPair().getPublic()));
+    }
+
+    @Test
+    @DisplayName("A full list contains exactly the revoked ids")
+    void fullList() throws Exception {
+        final var revoked = new ArrayList<UUID>();
+        for (int i = 0; i < 1000; i++) {
+            revoked.add(UUID.randomUUID());
+        }
+        final var sut = newSut();
+        Assertions.assertEquals(-1, sut.sequence());
+        sut.update(signed(RevocationList.Create.full(7, revoked)));
+        Assertions.assertEquals(7, sut.sequence());
+        Assertions.assertEquals(1000, sut.size());
+        for (final var id : revoked) {
+            Assertions.assertTrue(sut.isRevoked(id));
+        }
+        for (int i = 0; i < 10000; i++) {
+            Assertions.assertFalse(sut.isRevoked(UUID.randomUUID()));
+        }
+    }
+
+    @Test
+    @DisplayName("A delta list is applied to the list it was created from")
+    void deltaList() throws Exception {
+        final var a = UUID.randomUUID();
+        final var b = UUID.randomUUID();
+        final var c = UUID.randomUUID();
+        final var sut = newSut();
+        sut.update(signed(RevocationList.Create.full(1, List.of(a, b))));
+        sut.update(signed(RevocationList.Create.delta(1, 2, List.of(c), List.of(a))));
+        Assertions.assertEquals(2, sut.sequence());
+        Assertions.assertFalse(sut.isRevoked(a));
+        Assertions.assertTrue(sut.isRevoked(b));
+        Assertions.assertTrue(sut.isRevoked(c));
+        final var outOfOrder = signed(RevocationList.Create.delta(1, 3, List.of(a), List.of()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.update(outOfOrder));
+        Assertions.assertEquals(2, sut.sequence());
+    }
+
+    @Test
+    @DisplayName("Replayed and older full lists are rejected")
+    void oldFullListIsRejected() throws Exception {
+        final var a = UUID.randomUUID();
+        final var old = signed(RevocationList.Create.full(1, List.of()));
+        final var sut = newSut();
+        sut.update(old);
+        sut.update(signed(RevocationList.Create.full(2, List.of(a))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.update(old));
+        final var replayed = signed(RevocationList.Create.full(2, List.of()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.update(replayed));
+        final var negative = signed(RevocationList.Create.full(-1, List.of()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> newSut().update(negative));
+        Assertions.assertEquals(2, sut.sequence());
+        Assertions.assertTrue(sut.isRevoked(a));
+    }
+
+    @Test
+    @DisplayName("Delta lists that do not move the sequence forward are rejected")
+    void deltaListRollbackIsRejected() throws Exception {
+        final var a = UUID.randomUUID();
+        final var sut = newSut();
+        sut.update(signed(RevocationList.Create.full(3, List.of(a))));
+        final var same = signed(RevocationList.Create.delta(3, 3, List.of(), List.of(a)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.update(same));
+        final var backwards = signed(RevocationList.Create.delta(3, 1, List.of(), List.of(a)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.update(backwards));
+        Assertions.assertEquals(3, sut.sequence());
+        Assertions.assertTrue(sut.isRevoked(a));
+    }
+
+    @Test
+    @DisplayName("Licenses get the default revocation state until the first list is loaded")
+    void defaultStateBeforeFirstList() throws Exception {
+        final var license = new License();
+        license.setLicenseId(UUID.randomUUID());
+        final var sut = newSut();
+        final var revocable = new RevocableLicense(license).revocationList(sut);
+        Assertions.assertTrue(revocable.isRevoked(true));
+        Assertions.assertFalse(revocable.isRevoked(false));
+        Assertions.assertTrue(revocable.isRevokedAsync(true).get());
+        Assertions.assertFalse(revocable.isRevokedAsync(false).get());
+        sut.update(signed(RevocationList.Create.full(0, List.of())));
+        Assertions.assertFalse(revocable.isRevoked(true));
+        Assertions.assertFalse(revocable.isRevokedAsync(true).get());
+    }
+
+    @Test
+    @DisplayName("A list that is not signed with the key of the verifier is rejected")
+    void listSignedWithOtherKeyIsRejected() throws Exception {
+        final var other = LicenseKeyPair.Create.from("RSA", 1024);
+        final var list = RevocationList.Create.full(1, Set.of(UUID.randomUUID()));
+        list.sign(other.getPair().getPrivate(), "SHA-512");
+        final var sut = newSut();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.update(list));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.update(signed(new License())));
+        Assertions.assertEquals(0, sut.size());
+    }
+
+    @Test
+    @DisplayName("Licenses are looked up by the license id or by the fingerprint")
+    void revocableLicenseUsesTheList() throws Exception {
+        final var withId = new License();
+        withId.setLicenseId(UUID.randomUUID());
+        withId.add(Feature.Create.stringFeature("revocationUrl", "https://localhost:1/${licenseId}"));
+        final var withoutId = new License();
+        withoutId.add(Feature.Create.stringFeature("owner", "Peter Verhas"));
+        final var notRevoked = new License();
+        notRevoked.setLicenseId(UUID.randomUUID());
+        final var sut = newSut();
+        sut.update(signed(RevocationList.Create.full(1, List.of(withId.getLicenseId(), withoutId.fingerprint()))));
+        Assertions.assertTrue(new RevocableLicense(withId).revocationList(sut).isRevoked(false));
+        Assertions.assertTrue(new RevocableLicense(withoutId).revocationList(sut).isRevokedAsync().get());
+        Assertions.assertFalse(new RevocableLicense(notRevoked).revocationList(sut).isRevoked(true));
+    }
+
+    @Test
+    @DisplayName("The list can be downloaded from a URL")
+    void listIsDownloaded() throws Exception {
+        final var id = UUID.randomUUID();
+        final var file = File.createTempFile("revocation", ".bin");
+        file.deleteOnExit();
+        try (final var writer = new LicenseWriter(file)) {
+            writer.write(signed(RevocationList.Create.full(5, List.of(id))), IOFormat.BINARY);
+        }
+        final var sut = newSut();
+        sut.update(file.toURI().toURL());
+        Assertions.assertEquals(5, sut.sequence());
+        Assertions.assertTrue(sut.isRevoked(id));
+    }
+}
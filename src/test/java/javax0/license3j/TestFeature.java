@@ -56,6 +56,29 @@ public class TestFeature {
         Assertions.assertEquals(new UUID(1L, 2L), res.getUUID());
     }
 
+    @Test
+    @DisplayName("UUID bits are returned in the holder without creating a UUID object")
+    public void testUUIDBits() {
+        var sut = Create.uuidFeature("feature name", new UUID(-1L, 2L));
+        var holder = new long[2];
+        Assertions.assertSame(holder, sut.getUUIDBits(holder));
+        Assertions.assertEquals(-1L, holder[0]);
+        Assertions.assertEquals(2L, holder[1]);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.getUUIDBits(new long[1]));
+    }
+
+    @Test
+    @DisplayName("Primitive values are decoded directly from the bytes")
+    public void testPrimitiveDecoding() {
+        Assertions.assertEquals((short) -2, Create.shortFeature("s", (short) -2).getShort());
+        Assertions.assertEquals(Integer.MIN_VALUE + 255, Create.intFeature("i", Integer.MIN_VALUE + 255).getInt());
+        Assertions.assertEquals(-0x0102030405060708L, Create.longFeature("l", -0x0102030405060708L).getLong());
+        Assertions.assertEquals(-3.25f, Create.floatFeature("f", -3.25f).getFloat());
+        Assertions.assertEquals(Math.PI, Create.doubleFeature("d", Math.PI).getDouble());
+        Assertions.assertEquals(-1545047719295L, Create.dateFeature("t", new Date(-1545047719295L)).getDateMillis());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Create.intFeature("i", 1).getDateMillis());
+    }
+
     @Test
     @DisplayName("UUID created from string")
     public void testUUIDFromString() {
@@ -490,6 +513,39 @@ public class TestFeature {
         Assertions.assertEquals(new Date(1545047700000L), sut3.getDate());
     }
 
+    @Test
+    @DisplayName("date feature is formatted and parsed the same way as with SimpleDateFormat")
+    public void testDateFormatCompatibility() throws Exception {
+        final var legacy = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        legacy.setTimeZone(java.util.TimeZone.getTimeZone("UTC"));
+        final var random = new java.util.Random(1545047719295L);
+        final var millis = new long[1003];
+        millis[0] = -12219292800000L - 1;
+        millis[1] = 0;
+        millis[2] = 253402300799999L;
+        for (int i = 3; i < millis.length; i++) {
+            millis[i] = -15000000000000L + (long) (random.nextDouble() * 270000000000000L);
+        }
+        for (final var m : millis) {
+            final var date = new Date(m);
+            final var sut = Create.dateFeature("d", date);
+            final var string = sut.toString();
+            Assertions.assertEquals("d:DATE=" + legacy.format(date), string);
+            Assertions.assertEquals(date, Create.from(string).getDate());
+            Assertions.assertEquals(legacy.parse(legacy.format(date)), Create.from(string).getDate());
+        }
+    }
+
+    @Test
+    @DisplayName("date strings that are not strictly valid are parsed leniently")
+    public void testLenientDateFromString() {
+        Assertions.assertEquals(Feature.Create.from("name:DATE=2018-03-02").getDate(),
+            Feature.Create.from("name:DATE=2018-02-30").getDate());
+        Assertions.assertEquals(new Date(1545004800000L), Feature.Create.from("name:DATE=2018-12-17").getDate());
+        Assertions.assertEquals(new Date(1545044400000L), Feature.Create.from("name:DATE=2018-12-17 11").getDate());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Feature.Create.from("name:DATE=yesterday"));
+    }
+
 
     @Test
     @DisplayName("String feature is converted to string")
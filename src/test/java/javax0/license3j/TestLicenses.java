@@ -0,0 +1,24 @@
+package javax0.license3j;
+
+import javax0.license3j.crypto.LicenseKeyPair;
+
+/**
+ * Licenses used by the tests of the verifier and the verification cache.
+ */
+final class TestLicenses {
+    private TestLicenses() {
+    }
+
+    /**
+     * @param keyPair the key pair to sign the license with
+     * @param owner   the value of the {@code owner} feature
+     * @return a license containing only the owner, signed with SHA-512 digest
+     * @throws Exception if the license cannot be signed
+     */
+    static License signedLicense(LicenseKeyPair keyPair, String owner) throws Exception {
+        final var license = new License();
+        license.add(Feature.Create.stringFeature("owner", owner));
+        license.sign(keyPair.getPair().getPrivate(), "SHA-512");
+        return license;
+    }
+}
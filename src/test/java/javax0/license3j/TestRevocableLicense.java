@@ -9,6 +9,7 @@ import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.time.Duration;
 import java.util.UUID;
 
 public class TestRevocableLicense {
@@ -103,6 +104,24 @@ public class TestRevocableLicense {
         Assertions.assertTrue(lic.isRevoked(true));
     }
 
+    @Test
+    @DisplayName("Cached revocation state is used without connecting to the revocation service")
+    public void cachedRevocationState() {
+        final var license = new License();
+        final var cache = new RevocationCache(Duration.ofHours(1), Duration.ofMinutes(1));
+        final var lic = new RevocableLicense(license).cached(cache);
+        mockHttpFetch(lic, 404, null);
+        lic.setRevocationURL(licenceUrlTemplate);
+        license.setLicenseId(new UUID(0, 3L));
+        Assertions.assertTrue(lic.isRevoked());
+        mockHttpFetch(lic, 200, null);
+        Assertions.assertTrue(lic.isRevoked());
+        final var other = new RevocableLicense(license).cached(cache);
+        mockHttpFetch(other, 0, new IOException());
+        Assertions.assertTrue(other.isRevoked(false));
+        Assertions.assertEquals(1, cache.misses());
+    }
+
     @Test
     public void notSettingRevocationUrlResultNullRevocationUrl()
         throws MalformedURLException {
@@ -0,0 +1,154 @@
+package javax0.license3j;
+
+import javax0.license3j.crypto.LicenseKeyPair;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static javax0.license3j.TestLicenses.signedLicense;
+
+class VerificationCacheTest {
+
+    @Test
+    @DisplayName("Repeated verification of the same license is served from the cache")
+    void repeatedVerificationHitsTheCache() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var cache = new VerificationCache(10, Duration.ofMinutes(1));
+        final var sut = new LicenseVerifier(keyPair.getPair().getPublic()).cached(cache);
+        final var license = signedLicense(keyPair, "Peter Verhas");
+        Assertions.assertTrue(sut.verify(license));
+        Assertions.assertTrue(sut.verify(license));
+        Assertions.assertTrue(sut.verify(License.Create.from(license.serialized())));
+        Assertions.assertEquals(2, cache.hits());
+        Assertions.assertEquals(1, cache.misses());
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("A license altered after verification is not served from the cache")
+    void alteredLicenseMissesTheCache() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var cache = new VerificationCache(10, Duration.ofMinutes(1));
+        final var sut = new LicenseVerifier(keyPair.getPair().getPublic()).cached(cache);
+        final var license = signedLicense(keyPair, "Peter Verhas");
+        Assertions.assertTrue(sut.verify(license));
+        license.add(Feature.Create.stringFeature("owner", "Someone Else"));
+        Assertions.assertFalse(sut.verify(license));
+        Assertions.assertFalse(sut.verify(license));
+        Assertions.assertEquals(0, cache.hits());
+        Assertions.assertEquals(3, cache.misses());
+    }
+
+    @Test
+    @DisplayName("A cache cannot be shared by verifiers with different public keys")
+    void cacheIsBoundToTheKey() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var otherPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var cache = new VerificationCache(10, Duration.ofMinutes(1));
+        final var sut = new LicenseVerifier(keyPair.getPair().getPublic()).cached(cache);
+        new LicenseVerifier(keyPair.getPublic()).cached(cache);
+        final var other = new LicenseVerifier(otherPair.getPair().getPublic());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> other.cached(cache));
+        final var license = signedLicense(keyPair, "Peter Verhas");
+        Assertions.assertTrue(sut.verify(license));
+        Assertions.assertFalse(other.verify(license));
+    }
+
+    @Test
+    @DisplayName("The least recently used license is evicted when the cache is full")
+    void leastRecentlyUsedIsEvicted() {
+        final var sut = new VerificationCache(2, Duration.ofMinutes(1));
+        sut.put(new byte[]{1}, new byte[]{1});
+        sut.put(new byte[]{2}, new byte[]{2});
+        Assertions.assertTrue(sut.contains(new byte[]{1}, new byte[]{1}));
+        sut.put(new byte[]{3}, new byte[]{3});
+        Assertions.assertEquals(1, sut.evictions());
+        Assertions.assertEquals(2, sut.size());
+        Assertions.assertTrue(sut.contains(new byte[]{1}, new byte[]{1}));
+        Assertions.assertFalse(sut.contains(new byte[]{2}, new byte[]{2}));
+        Assertions.assertTrue(sut.contains(new byte[]{3}, new byte[]{3}));
+    }
+
+    @Test
+    @DisplayName("Entries older than the time to live are evicted")
+    void expiredEntryIsEvicted() {
+        final var clock = new AtomicLong();
+        final var sut = new VerificationCache(10, Duration.ofSeconds(1), clock::get);
+        sut.put(new byte[]{1}, new byte[]{1});
+        clock.set(Duration.ofMillis(999).toNanos());
+        Assertions.assertTrue(sut.contains(new byte[]{1}, new byte[]{1}));
+        clock.set(Duration.ofMillis(1001).toNanos());
+        Assertions.assertFalse(sut.contains(new byte[]{1}, new byte[]{1}));
+        Assertions.assertEquals(1, sut.evictions());
+        Assertions.assertEquals(0, sut.size());
+    }
+
+    @Test
+    @DisplayName("Many threads verify the same licenses from the cache concurrently")
+    void concurrentHits() throws Exception {
+        final var keyPair = LicenseKeyPair.Create.from("RSA", 1024);
+        final var cache = new VerificationCache(100, Duration.ofMinutes(1));
+        final var sut = new LicenseVerifier(keyPair.getPair().getPublic()).cached(cache);
+        final var licenses = new ArrayList<ImmutableLicense>();
+        for (int i = 0; i < 10; i++) {
+            final var license = signedLicense(keyPair, "Owner " + i).freeze();
+            Assertions.assertTrue(sut.verify(license));
+            licenses.add(license);
+        }
+        final var executor = Executors.newFixedThreadPool(8);
+        try {
+            final var tasks = new ArrayList<Callable<Boolean>>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(() -> {
+                    var ok = true;
+                    for (int i = 0; i < 1000; i++) {
+                        ok &= sut.verify(licenses.get(i % licenses.size()));
+                    }
+                    return ok;
+                });
+            }
+            for (final Future<Boolean> result : executor.invokeAll(tasks)) {
+                Assertions.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(8000, cache.hits());
+        Assertions.assertEquals(10, cache.misses());
+        Assertions.assertEquals(10, cache.size());
+    }
+
+    @Test
+    @DisplayName("A full cache evicts a batch of entries and counts each of them")
+    void fullCacheEvictsABatch() {
+        final var clock = new AtomicLong();
+        final var sut = new VerificationCache(32, Duration.ofMinutes(1), clock::get);
+        for (byte i = 0; i < 32; i++) {
+            clock.incrementAndGet();
+            sut.put(new byte[]{i}, new byte[]{i});
+        }
+        clock.incrementAndGet();
+        Assertions.assertTrue(sut.contains(new byte[]{0}, new byte[]{0}));
+        sut.put(new byte[]{32}, new byte[]{32});
+        Assertions.assertEquals(3, sut.evictions());
+        Assertions.assertEquals(30, sut.size());
+        Assertions.assertTrue(sut.contains(new byte[]{0}, new byte[]{0}));
+        Assertions.assertFalse(sut.contains(new byte[]{1}, new byte[]{1}));
+        Assertions.assertFalse(sut.contains(new byte[]{3}, new byte[]{3}));
+        Assertions.assertTrue(sut.contains(new byte[]{4}, new byte[]{4}));
+        Assertions.assertTrue(sut.contains(new byte[]{32}, new byte[]{32}));
+    }
+
+    @Test
+    @DisplayName("Zero or negative cache size is rejected")
+    void nonPositiveSizeThrows() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new VerificationCache(0, Duration.ofSeconds(1)));
+    }
+}
@@ -7,8 +7,10 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.net.NetworkInterface;
+import java.util.regex.PatternSyntaxException;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestInterfaceSelector {
@@ -84,6 +86,18 @@ public class TestInterfaceSelector {
         test("allowed").allowed("allowed").denied("denied", "denied2").isUsable();
     }
 
+    @Test
+    @DisplayName("Regular expressions are compiled when added and match the whole display name")
+    public void patternsAreCompiled() {
+        final var sut = newSut();
+        assertThrows(PatternSyntaxException.class, () -> sut.interfaceAllowed("eth[0-9"));
+        sut.interfaceAllowed("eth\\d+");
+        sut.interfaceDenied("eth0");
+        assertTrue(sut.matches("eth1"));
+        assertFalse(sut.matches("eth0"));
+        assertFalse(sut.matches("veth1"));
+    }
+
     private static class IfTest {
         NetworkInterface ni;
         Network.Interface.Selector sut;
@@ -0,0 +1,98 @@
+package javax0.license3j.hardware;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestUUIDCalculator {
+
+    private static class CountingCalculator extends UUIDCalculator {
+        private final AtomicInteger calculations = new AtomicInteger();
+
+        private CountingCalculator(Network.Interface.Selector selector) {
+            super(selector);
+        }
+
+        @Override
+        UUID calculate(boolean useNetwork, boolean useHostName, boolean useArchitecture) {
+            return new UUID(calculations.incrementAndGet(), (useNetwork ? 4 : 0) | (useHostName ? 2 : 0) | (useArchitecture ? 1 : 0));
+        }
+    }
+
+    @Test
+    @DisplayName("Cached calculator returns the same UUID as the non cached")
+    public void cachedUuidIsTheSame() throws Exception {
+        final var uncached = new UUIDCalculator(new Network.Interface.Selector());
+        final var cached = new UUIDCalculator(new Network.Interface.Selector()).cached(Duration.ofHours(1));
+        Assertions.assertEquals(uncached.getMachineId(true, false, true), cached.getMachineId(true, false, true));
+        Assertions.assertEquals(cached.getMachineId(true, false, true), cached.getMachineId(true, false, true));
+        Assertions.assertTrue(cached.assertUUID(uncached.getMachineId(true, false, true), true, false, true));
+    }
+
+    @Test
+    @DisplayName("The UUID is calculated once for each configuration and again when the selector changes")
+    public void calculatedOncePerConfiguration() throws Exception {
+        final var selector = new Network.Interface.Selector();
+        final var sut = new CountingCalculator(selector);
+        sut.cached(Duration.ofHours(1));
+        final var first = sut.getMachineId(true, true, true);
+        Assertions.assertEquals(first, sut.getMachineId(true, true, true));
+        Assertions.assertNotEquals(first, sut.getMachineId(false, true, true));
+        Assertions.assertEquals(2, sut.calculations.get());
+        selector.interfaceDenied("docker.*");
+        Assertions.assertNotEquals(first, sut.getMachineId(true, true, true));
+        Assertions.assertEquals(3, sut.calculations.get());
+    }
+
+    @Test
+    @DisplayName("The cached UUIDs are recalculated in the background")
+    public void refreshedInTheBackground() throws Exception {
+        final var sut = new CountingCalculator(new Network.Interface.Selector());
+        sut.cached(Duration.ofMillis(10));
+        sut.getMachineId(true, true, true);
+        final var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (sut.calculations.get() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(sut.calculations.get() >= 3);
+        Assertions.assertNotEquals(1L, sut.getMachineId(true, true, true).getMostSignificantBits());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sut.cached(Duration.ZERO));
+    }
+
+    @Test
+    @DisplayName("The selector can be modified while the cached UUIDs are refreshed in the background")
+    public void selectorModifiedDuringRefresh() throws Exception {
+        final var selector = new Network.Interface.Selector();
+        final var sut = new UUIDCalculator(selector).cached(Duration.ofMillis(1));
+        sut.getMachineId(true, false, false);
+        final var done = new AtomicBoolean();
+        final var failure = new AtomicReference<Throwable>();
+        final var reader = new Thread(() -> {
+            try {
+                for (int i = 0; !done.get(); i++) {
+                    selector.matches("eth" + i % 10);
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 500; i++) {
+            selector.interfaceDenied("denied" + i + ".*");
+            selector.interfaceAllowed(".*" + i);
+            if (i % 50 == 0) {
+                Thread.sleep(1);
+            }
+        }
+        done.set(true);
+        reader.join();
+        Assertions.assertNull(failure.get());
+        Assertions.assertEquals(sut.calculate(true, false, false), sut.getMachineId(true, false, false));
+    }
+}
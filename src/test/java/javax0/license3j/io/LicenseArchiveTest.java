@@ -0,0 +1,99 @@
+package javax0.license3j.io;
+
+import javax0.license3j.Feature;
+import javax0.license3j.License;
+import javax0.license3j.crypto.LicenseKeyPair;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.UUID;
+
+class LicenseArchiveTest {
+
+    private static License license(UUID id, int i) {
+        final var license = new License();
+        license.setLicenseId(id);
+        license.add(Feature.Create.stringFeature("owner", "owner " + i));
+        license.add(Feature.Create.intFeature("maxUsers", i));
+        return license;
+    }
+
+    @Test
+    @DisplayName("Licenses written into an archive are found by their license id")
+    void licensesAreFoundById() throws Exception {
+        final var file = File.createTempFile("licenses", ".archive");
+        try {
+            final var keys = LicenseKeyPair.Create.from("RSA", 1024);
+            final var ids = new ArrayList<UUID>();
+            try (final var writer = new LicenseArchiveWriter(file)) {
+                for (int i = 0; i < 500; i++) {
+                    final var id = UUID.randomUUID();
+                    ids.add(id);
+                    final var license = license(id, i);
+                    license.sign(keys.getPair().getPrivate(), "SHA-256");
+                    writer.write(license);
+                }
+            }
+            try (final var reader = new LicenseArchiveReader(file)) {
+                Assertions.assertEquals(500, reader.size());
+                for (int i = 0; i < ids.size(); i++) {
+                    final var view = reader.get(ids.get(i));
+                    Assertions.assertEquals(ids.get(i), view.getLicenseId());
+                    Assertions.assertEquals("owner " + i, view.get("owner").getString());
+                    Assertions.assertEquals(i, view.get("maxUsers").getInt());
+                    Assertions.assertTrue(view.isOK(keys.getPair().getPublic()));
+                }
+                Assertions.assertNull(reader.get(new UUID(0L, 0L)));
+                Assertions.assertFalse(reader.contains(new UUID(-1L, -1L)));
+                Assertions.assertTrue(reader.contains(ids.get(0)));
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    @DisplayName("Empty archive can be read")
+    void emptyArchive() throws IOException {
+        final var file = File.createTempFile("licenses", ".archive");
+        try {
+            new LicenseArchiveWriter(file).close();
+            try (final var reader = new LicenseArchiveReader(file)) {
+                Assertions.assertEquals(0, reader.size());
+                Assertions.assertNull(reader.get(UUID.randomUUID()));
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    @DisplayName("Licenses without id or with duplicate id cannot be archived")
+    void invalidLicensesAreRejected() throws IOException {
+        final var file = File.createTempFile("licenses", ".archive");
+        try {
+            final var writer = new LicenseArchiveWriter(file);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> writer.write(new License()));
+            writer.write(license(new UUID(1L, 2L), 1));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                () -> writer.write(license(new UUID(1L, 2L), 2)));
+            writer.write(license(new UUID(1L, 3L), 3));
+            writer.close();
+            writer.close();
+            try (final var reader = new LicenseArchiveReader(file)) {
+                Assertions.assertEquals(2, reader.size());
+                Assertions.assertEquals("owner 1", reader.get(new UUID(1L, 2L)).get("owner").getString());
+            }
+            Files.write(file.toPath(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18,
+                19, 20, 21, 22, 23, 24});
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new LicenseArchiveReader(file));
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+}
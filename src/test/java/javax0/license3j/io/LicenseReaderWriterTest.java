@@ -0,0 +1,104 @@
+package javax0.license3j.io;
+
+import javax0.license3j.Feature;
+import javax0.license3j.License;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.Date;
+
+class LicenseReaderWriterTest {
+
+    private static License sampleLicense() {
+        final var license = new License();
+        license.add(Feature.Create.stringFeature("owner", "Peter Verhas"));
+        license.add(Feature.Create.binaryFeature("logo", new byte[10_000]));
+        license.setExpiry(new Date(1545047719295L));
+        return license;
+    }
+
+    @Test
+    @DisplayName("License written to a file channel is read back from a file channel in every format")
+    void channelRoundTrip() throws IOException {
+        final var file = File.createTempFile("license", ".bin");
+        try {
+            final var license = sampleLicense();
+            for (final var format : IOFormat.values()) {
+                try (final var channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                    new LicenseWriter(channel).write(license, format);
+                }
+                try (final var reader = new LicenseReader(FileChannel.open(file.toPath()), file.length())) {
+                    Assertions.assertArrayEquals(license.serialized(), reader.read(format).serialized());
+                }
+                try (final var reader = new LicenseReader(file)) {
+                    Assertions.assertArrayEquals(license.serialized(), reader.read(format).serialized());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    @DisplayName("Base64 license is encoded the same way as encoding the binary license")
+    void base64IsStreamed() throws IOException {
+        final var license = sampleLicense();
+        final var os = new ByteArrayOutputStream();
+        new LicenseWriter(os).write(license, IOFormat.BASE64);
+        Assertions.assertEquals(Base64.getEncoder().encodeToString(license.serialized()), os.toString());
+        final var restored = new LicenseReader(new ByteArrayInputStream(os.toByteArray())).read(IOFormat.BASE64);
+        Assertions.assertArrayEquals(license.serialized(), restored.serialized());
+    }
+
+    @Test
+    @DisplayName("Channel longer than the limit is rejected")
+    void channelLimit() throws IOException {
+        final var file = File.createTempFile("license", ".bin");
+        try {
+            try (final var writer = new LicenseWriter(file)) {
+                writer.write(sampleLicense());
+            }
+            try (final var channel = FileChannel.open(file.toPath())) {
+                Assertions.assertThrows(IllegalArgumentException.class, () -> new LicenseReader(channel, 100));
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    @DisplayName("The limit applies to the bytes after the position of the channel")
+    void channelLimitFromPosition() throws IOException {
+        final var file = File.createTempFile("license", ".bin");
+        try {
+            final var license = sampleLicense();
+            try (final var channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.position(100);
+                new LicenseWriter(channel).write(license, IOFormat.BINARY);
+            }
+            final var length = license.serializedSize();
+            try (final var channel = FileChannel.open(file.toPath())) {
+                channel.position(100);
+                try (final var reader = new LicenseReader(channel, length)) {
+                    Assertions.assertArrayEquals(license.serialized(), reader.read().serialized());
+                }
+            }
+            try (final var channel = FileChannel.open(file.toPath())) {
+                channel.position(99);
+                Assertions.assertThrows(IllegalArgumentException.class, () -> new LicenseReader(channel, length));
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+}